@@ -1,16 +1,37 @@
 package net.simplehardware.engine;
 
 import com.google.gson.Gson;
+import net.simplehardware.engine.core.BotConnection;
 import net.simplehardware.engine.core.GameEngine;
+import net.simplehardware.engine.core.HistoryRecorder;
+import net.simplehardware.engine.core.LaunchProfiles;
+import net.simplehardware.engine.core.MatchReplayer;
+import net.simplehardware.engine.core.OffHeapHistory;
+import net.simplehardware.engine.core.ReplayFile;
+import net.simplehardware.engine.core.ReplayRecorder;
+import net.simplehardware.engine.game.CompiledMaze;
 import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.results.ResultStore;
 import net.simplehardware.engine.viewer.GameViewer;
+import net.simplehardware.engine.viewer.elements.GameState;
+import net.simplehardware.models.MatchLogData;
+import net.simplehardware.models.MatchResultData;
 import net.simplehardware.models.MazeInfoData;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.swing.SwingUtilities;
 
 /**
@@ -32,6 +53,21 @@ public class GameLauncher {
         int level = 5;
         int logging = 1, turninfo = 1, debug = 0;
         boolean gui = false;
+        boolean offHeapHistory = false;
+        Long seed = null;
+        String recordPath = null;
+        String resimulatePath = null;
+        boolean validate = true;
+        long timeBankMs = 0;
+        long startupTimeoutMs = 5000;
+        int stallRounds = 0;
+        String launchProfilesPath = null;
+        boolean cpuTimeouts = false;
+        String logFile = null;
+        String resultsPath = null;
+        String leaderboardPath = null;
+        String replayPath = null;
+        String viewPath = null;
 
         try {
             for (int i = 0; i < args.length; i++) {
@@ -102,19 +138,131 @@ public class GameLauncher {
                     case "--gui":
                         gui = true;
                         break;
+                    case "--off-heap-history":
+                        offHeapHistory = true;
+                        break;
+                    case "--no-validate":
+                        validate = false;
+                        break;
+                    case "--cpu-timeouts":
+                        cpuTimeouts = true;
+                        break;
+                    case "--log-file":
+                        if (i + 1 < args.length) {
+                            logFile = args[++i];
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --log-file");
+                        }
+                        break;
+                    case "--seed":
+                        if (i + 1 < args.length) {
+                            seed = Long.parseLong(args[++i]);
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --seed");
+                        }
+                        break;
+                    case "--record":
+                        if (i + 1 < args.length) {
+                            recordPath = args[++i];
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --record");
+                        }
+                        break;
+                    case "--time-bank":
+                        if (i + 1 < args.length) {
+                            timeBankMs = Long.parseLong(args[++i]);
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --time-bank");
+                        }
+                        break;
+                    case "--startup-timeout":
+                        if (i + 1 < args.length) {
+                            startupTimeoutMs = Long.parseLong(args[++i]);
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --startup-timeout");
+                        }
+                        break;
+                    case "--stall-rounds":
+                        if (i + 1 < args.length) {
+                            stallRounds = Integer.parseInt(args[++i]);
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --stall-rounds");
+                        }
+                        break;
+                    case "--launch-profiles":
+                        if (i + 1 < args.length) {
+                            launchProfilesPath = args[++i];
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --launch-profiles");
+                        }
+                        break;
+                    case "--results":
+                        if (i + 1 < args.length) {
+                            resultsPath = args[++i];
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --results");
+                        }
+                        break;
+                    case "--leaderboard":
+                        if (i + 1 < args.length) {
+                            leaderboardPath = args[++i];
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --leaderboard");
+                        }
+                        break;
+                    case "--save-replay":
+                        if (i + 1 < args.length) {
+                            replayPath = args[++i];
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --save-replay");
+                        }
+                        break;
+                    case "--view":
+                        if (i + 1 < args.length) {
+                            viewPath = args[++i];
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --view");
+                        }
+                        break;
+                    case "--resimulate":
+                        if (i + 1 < args.length) {
+                            resimulatePath = args[++i];
+                        } else {
+                            throw new IllegalArgumentException("Missing value for --resimulate");
+                        }
+                        break;
                     default:
                         // Ignore unknown args or handle as needed
                         break;
                 }
             }
 
+            if (leaderboardPath != null) {
+                new ResultStore(Path.of(leaderboardPath)).printLeaderboard(Integer.MAX_VALUE);
+                return;
+            }
+
+            if (viewPath != null) {
+                ReplayFile replay = new ReplayFile(Path.of(viewPath));
+                SwingUtilities.invokeLater(() -> new GameViewer(replay, replay.getMazeName()));
+                return;
+            }
+
+            if (resimulatePath != null) {
+                resimulate(resimulatePath, mapPath);
+                return;
+            }
+
             if (mapPath == null) {
                 throw new IllegalArgumentException("--map argument is required");
             }
 
             maxTurns *= playerPaths.size();
 
-            launchGame(mapPath, playerPaths, maxTurns, randomSpawn, level, logging, turninfo, debug, gui);
+            launchGame(mapPath, playerPaths, maxTurns, randomSpawn, level, logging, turninfo, debug, gui,
+                    offHeapHistory, seed,
+                    recordPath, validate, timeBankMs, startupTimeoutMs, stallRounds, launchProfilesPath, cpuTimeouts,
+                    resultsPath, logFile, replayPath);
 
         } catch (Exception e) {
             System.err.println("Error: " + e.getMessage());
@@ -126,22 +274,78 @@ public class GameLauncher {
     private static void printUsage() {
         System.out.println(
                 "Usage: java -jar MazeRunner.jar --map \"path/to/file\" --players <count> \"path/to/player/1\" ... --max-turns <count> --randomSpawn <0|1> --level <int> [--gui] [--web]");
-        System.out.println("  --gui: Launch Swing GUI viewer after game completion");
+        System.out.println("  --gui: Launch Swing GUI viewer that follows the game live");
         System.out.println("  --web: Export game data and open web viewer in browser");
+        System.out.println("  --off-heap-history: With --gui, keep the game history in direct memory");
+        System.out.println("  Player paths of the form bot:<class name> run an in-process Bot from the classpath");
+        System.out.println("  --no-validate: Run even if a player cannot reach its forms or finish");
+        System.out.println("  --time-bank <ms>: Extra time per match a player may spend over its turn timeouts");
+        System.out.println("  --startup-timeout <ms>: Time player JARs get to start, see readySignal in launch profiles");
+        System.out.println("  --stall-rounds <n>: End the match after n rounds that repeat a state of the last n rounds");
+        System.out.println("  --launch-profiles <file>: JVM settings and AppCDS for player JARs");
+        System.out.println("  --cpu-timeouts: Judge turn timeouts by the player's CPU time instead of wall time");
+        System.out.println("  --log-file <file>: Write the game log to a file instead of the console");
+        System.out.println("  --results <dir>: Append the match result to a result store and update ratings");
+        System.out.println("  --leaderboard <dir>: Print the ratings of a result store");
+        System.out.println("  --seed <long>: Seed for random spawn (recorded with the match)");
+        System.out.println("  --record <file>: Write the seed and action log of the match to a file");
+        System.out.println("  --resimulate <file> [--map <file>]: Replay an action log without player processes");
+        System.out.println("  --save-replay <file>: Stream every turn of the match to a replay file");
+        System.out.println("  --view <file>: Open a replay file in the viewer");
     }
 
-    public static void launchGame(String mazeFile, List<String> jarPaths, int maxTurns, boolean randomSpawn, int level,
-            int logging, int turninfo, int debug, boolean gui)
-            throws IOException {
-        // Load maze data
-        MazeInfoData mazeData;
+    private static MazeInfoData loadMazeData(String mazeFile) throws IOException {
         try (FileReader reader = new FileReader(mazeFile)) {
-            mazeData = new Gson().fromJson(reader, MazeInfoData.class);
+            return new Gson().fromJson(reader, MazeInfoData.class);
+        }
+    }
+
+    /**
+     * Re-run a recorded match through the referee only and print the outcome
+     *
+     * @param mapOverride maze to use instead of the recorded one, or null
+     */
+    public static void resimulate(String logFile, String mapOverride) throws IOException {
+        MatchLogData log;
+        try (FileReader reader = new FileReader(logFile)) {
+            log = new Gson().fromJson(reader, MatchLogData.class);
+        }
+        String mazeFile = mapOverride != null ? mapOverride : log.mazeFile;
+        if (mazeFile == null) {
+            throw new IOException("Action log has no maze file, pass --map");
         }
+        Maze maze = Maze.load(mazeFile);
 
+        MatchReplayer replayer = new MatchReplayer(maze, log);
+        long start = System.nanoTime();
+        boolean complete = replayer.run();
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("=== Re-simulation ===");
+        System.out.println("Maze: " + mazeFile);
+        System.out.println("Seed: " + log.seed);
+        System.out.println("Actions replayed: " + replayer.getConsumedActions() + "/" + log.actions.size());
+        if (!complete) {
+            System.out.println("Action log ended before the game was over");
+        } else if (replayer.getConsumedActions() < log.actions.size()) {
+            System.out.println("Game ended before the action log did (rules or maze changed?)");
+        }
+        System.out.printf("Time: %.3f ms (%.0f turns/s)%n", elapsed / 1e6,
+                replayer.getConsumedActions() / Math.max(elapsed / 1e9, 1e-9));
+        replayer.printFinalResults();
+    }
+
+    public static void launchGame(String mazeFile, List<String> jarPaths, int maxTurns, boolean randomSpawn, int level,
+            int logging, int turninfo, int debug, boolean gui, boolean offHeapHistory, Long seed, String recordPath,
+            boolean validate, long timeBankMs, long startupTimeoutMs, int stallRounds, String launchProfilesPath,
+            boolean cpuTimeouts, String resultsPath, String logFile, String replayPath)
+            throws IOException {
         // If no JARs provided via arguments, use those from the maze file (fallback)
-        if (jarPaths.isEmpty() && mazeData.playerJars != null && !mazeData.playerJars.isEmpty()) {
-            jarPaths = mazeData.playerJars;
+        if (jarPaths.isEmpty() && !mazeFile.endsWith(CompiledMaze.EXTENSION)) {
+            MazeInfoData mazeData = loadMazeData(mazeFile);
+            if (mazeData.playerJars != null && !mazeData.playerJars.isEmpty()) {
+                jarPaths = mazeData.playerJars;
+            }
         }
 
         if (jarPaths.isEmpty()) {
@@ -150,6 +354,9 @@ public class GameLauncher {
 
         // Validate JAR files exist
         for (String jarPath : jarPaths) {
+            if (jarPath.startsWith(BotConnection.PREFIX)) {
+                continue;
+            }
             File jarFile = new File(jarPath);
             if (!jarFile.exists()) {
                 throw new IOException("JAR file not found: " + jarPath);
@@ -170,7 +377,7 @@ public class GameLauncher {
         System.out.println("=================================\n");
 
         // Create maze
-        Maze maze = new Maze(mazeData);
+        Maze maze = Maze.load(mazeFile);
 
         System.out.println("Current debug status: " + debug);
         GameEngine.GameConfig config = new GameEngine.GameConfig();
@@ -182,12 +389,71 @@ public class GameLauncher {
         config.turnTimeoutMs = 500; // (was 50ms)
         config.firstTurnTimeoutMs = 1000;
         config.sheetsPerPlayer = 2; // Default or could be arg
-        GameEngine engine = new GameEngine(maze, jarPaths, config);
-        engine.setRandomSpawn(randomSpawn);
-        engine.initialize();
-        engine.runGame();
+        config.randomSpawn = randomSpawn;
+        config.seed = seed;
+        config.validateMaze = validate;
+        config.timeBankMs = timeBankMs;
+        config.startupTimeoutMs = startupTimeoutMs;
+        config.stallRounds = stallRounds;
+        config.cpuTimeouts = cpuTimeouts;
+        if (logFile != null) {
+            config.out = new PrintStream(new BufferedOutputStream(new FileOutputStream(logFile), 1 << 16), false,
+                    StandardCharsets.UTF_8);
+            config.err = config.out;
+        }
+        if (launchProfilesPath != null) {
+            config.launchProfiles = LaunchProfiles.load(launchProfilesPath);
+        }
         if (gui) {
-            SwingUtilities.invokeLater(() -> new GameViewer(engine.getGameHistory(), mazeData.name));
+            // History only references player output in these files, the viewer reads what it shows
+            config.logSegmentDir = Files.createTempDirectory("maze-logs");
+            config.logSegmentDir.toFile().deleteOnExit();
+        }
+        GameEngine engine = new GameEngine(maze, jarPaths, config);
+        if (gui && offHeapHistory) {
+            OffHeapHistory history = new OffHeapHistory();
+            engine.addListener(history);
+            SwingUtilities.invokeLater(() -> GameViewer.follow(history, maze.getName()));
+        } else if (gui) {
+            // The viewer follows the game while it runs
+            Queue<GameState> feed = new ConcurrentLinkedQueue<>();
+            HistoryRecorder history = new HistoryRecorder();
+            history.addSpectator(feed::offer);
+            engine.addListener(history);
+            SwingUtilities.invokeLater(() -> new GameViewer(feed, maze.getName()));
+        }
+        ReplayRecorder replay = null;
+        if (replayPath != null) {
+            replay = new ReplayRecorder(Path.of(replayPath), maze.getName());
+            engine.addListener(replay);
+        }
+        try {
+            engine.initialize();
+            engine.runGame();
+        } finally {
+            if (replay != null) {
+                replay.close();
+                System.out.println("Replay of " + replay.getFrameCount() + " turns written to " + replayPath);
+            }
+        }
+        if (logFile != null) {
+            config.out.close();
+            System.out.println("Game log written to " + logFile);
+        }
+        if (recordPath != null) {
+            MatchLogData log = engine.getMatchLog();
+            log.mazeFile = mazeFile;
+            try (FileWriter writer = new FileWriter(recordPath)) {
+                new Gson().toJson(log, writer);
+            }
+            System.out.println("Action log written to " + recordPath + " (seed " + log.seed + ")");
+        }
+        if (resultsPath != null) {
+            MatchResultData result = engine.getResult();
+            result.mazeFile = mazeFile;
+            ResultStore store = new ResultStore(Path.of(resultsPath));
+            store.append(result);
+            store.printLeaderboard(10);
         }
     }
 }
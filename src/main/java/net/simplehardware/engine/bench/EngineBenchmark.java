@@ -0,0 +1,312 @@
+package net.simplehardware.engine.bench;
+
+import net.simplehardware.engine.core.GameEngine;
+import net.simplehardware.engine.core.GameListener;
+import net.simplehardware.engine.core.LaunchProfiles;
+import net.simplehardware.engine.core.PlayerConnection;
+import net.simplehardware.engine.core.PlayerProcess;
+import net.simplehardware.engine.core.ProcessConnection;
+import net.simplehardware.engine.core.Referee;
+import net.simplehardware.engine.core.TurnStats;
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.players.Player;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Plays whole matches against {@link StubBot}s and reports what the engine itself costs: turns per
+ * second, engine time per player turn (everything but waiting for the bot) and the allocations of the
+ * engine thread. The stubs run either as player JVMs over real pipes or on threads of this JVM behind
+ * {@link StreamProcess}; with the same maze, seed and stub settings the scenario is fixed, so changes
+ * to the engine or {@link PlayerProcess} can be compared run against run.
+ */
+public class EngineBenchmark {
+    private final String mazeFile;
+    private final int players;
+    private final int turns;
+    private final StubBot.Settings stub;
+    private final LaunchProfiles launchProfiles;
+    private Path stubJar;
+
+    public EngineBenchmark(String mazeFile, int players, int turns, StubBot.Settings stub,
+            LaunchProfiles launchProfiles) {
+        this.mazeFile = mazeFile;
+        this.players = players;
+        this.turns = turns;
+        this.stub = stub;
+        this.launchProfiles = launchProfiles;
+    }
+
+    public static void main(String[] args) {
+        String mazeFile = "Mazes/03_Zickzack.json";
+        int players = 2;
+        int turns = 200;
+        int games = 5;
+        int warmup = 2;
+        long delayMs = 0;
+        int outputBytes = 0;
+        long seed = 1;
+        String transport = "both";
+        String launchProfilesPath = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (args[i].startsWith("--") && value == null) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--map" -> mazeFile = args[++i];
+                    case "--players" -> players = Integer.parseInt(args[++i]);
+                    case "--turns" -> turns = Integer.parseInt(args[++i]);
+                    case "--games" -> games = Integer.parseInt(args[++i]);
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--delay" -> delayMs = Long.parseLong(args[++i]);
+                    case "--output" -> outputBytes = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--transport" -> transport = args[++i];
+                    case "--launch-profiles" -> launchProfilesPath = args[++i];
+                    default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+                }
+            }
+            if (!List.of("pipes", "streams", "both").contains(transport)) {
+                throw new IllegalArgumentException("--transport must be pipes, streams or both");
+            }
+            if (players < 1 || turns < 1 || games < 1 || warmup < 0 || delayMs < 0 || outputBytes < 0) {
+                throw new IllegalArgumentException("Counts, delay and output must not be negative");
+            }
+
+            EngineBenchmark benchmark = new EngineBenchmark(mazeFile, players, turns,
+                    new StubBot.Settings(delayMs, outputBytes, seed),
+                    launchProfilesPath != null ? LaunchProfiles.load(launchProfilesPath) : LaunchProfiles.DEFAULT);
+            System.out.println("Benchmark: " + mazeFile + ", " + players + " stub bots, " + turns
+                    + " turns, delay " + delayMs + " ms, " + outputBytes + " bytes of stderr per turn");
+            if (!transport.equals("pipes")) {
+                System.out.println(benchmark.run(false, warmup, games));
+            }
+            if (!transport.equals("streams")) {
+                System.out.println(benchmark.run(true, warmup, games));
+            }
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -cp MazeEngine.jar net.simplehardware.engine.bench.EngineBenchmark"
+                    + " [--map <file>] [--players <n>] [--turns <n>] [--games <n>] [--warmup <n>]"
+                    + " [--delay <ms>] [--output <bytes>] [--seed <long>] [--transport pipes|streams|both]"
+                    + " [--launch-profiles <file>]");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Play {@code warmup} unmeasured matches, then {@code games} measured ones
+     *
+     * @param pipes stub bots as player JVMs instead of threads behind in-process streams
+     */
+    public Measurement run(boolean pipes, int warmup, int games) throws IOException {
+        Measurement total = new Measurement(pipes ? "pipes" : "streams");
+        for (int i = 0; i < warmup + games; i++) {
+            Measurement game = playOnce(pipes);
+            if (i >= warmup) {
+                total.add(game);
+            }
+        }
+        return total;
+    }
+
+    private Measurement playOnce(boolean pipes) throws IOException {
+        GameEngine engine = createMatch(pipes, stub.seed(), defaultConfig());
+        Measurement measurement = new Measurement(pipes ? "pipes" : "streams");
+        engine.addListener(measurement);
+        engine.initialize();
+        engine.runGame();
+        return measurement;
+    }
+
+    /**
+     * Quiet settings with turn timeouts the stubs' delay stays well within
+     */
+    GameEngine.GameConfig defaultConfig() {
+        GameEngine.GameConfig config = new GameEngine.GameConfig();
+        config.report = false;
+        config.turnInfo = 0;
+        config.logging = 0;
+        config.out = new PrintStream(OutputStream.nullOutputStream());
+        config.maxTurns = turns * players;
+        config.turnTimeoutMs = stub.delayMs() + 1000;
+        config.firstTurnTimeoutMs = stub.delayMs() + 10_000; // Player JVMs are still starting
+        config.launchProfiles = launchProfiles;
+        return config;
+    }
+
+    /**
+     * A match between stub bots. Stubs behind in-process streams play with {@code seed}; stub JARs
+     * are built once and keep the seed of the settings.
+     */
+    GameEngine createMatch(boolean pipes, long seed, GameEngine.GameConfig config) throws IOException {
+        config.seed = seed;
+        List<String> labels = new ArrayList<>();
+        List<PlayerConnection.Factory> factories = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            if (pipes) {
+                String jar = stubJar().toString();
+                labels.add(jar);
+                factories.add(playerId -> new ProcessConnection(playerId, jar, config));
+            } else {
+                labels.add("stub");
+                factories.add(playerId -> new ProcessConnection(playerId, new PlayerProcess(playerId,
+                        new StreamProcess("stub-" + playerId, stub.withSeed(seed)), config.outputCaptureBytes),
+                        config));
+            }
+        }
+        return GameEngine.withConnections(Maze.load(mazeFile), labels, factories, config);
+    }
+
+    /**
+     * JAR holding just the stub bot and its settings, built on first use
+     */
+    private synchronized Path stubJar() throws IOException {
+        if (stubJar != null) {
+            return stubJar;
+        }
+        Path jar = Files.createTempFile("stub-bot-", ".jar");
+        jar.toFile().deleteOnExit();
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, StubBot.class.getName());
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+            for (Class<?> type : List.of(StubBot.class, StubBot.Settings.class)) {
+                String classFile = type.getName().replace('.', '/') + ".class";
+                try (InputStream in = type.getResourceAsStream("/" + classFile)) {
+                    if (in == null) {
+                        throw new IOException(classFile + " not found on the classpath");
+                    }
+                    out.putNextEntry(new JarEntry(classFile));
+                    in.transferTo(out);
+                }
+            }
+            out.putNextEntry(new JarEntry(StubBot.SETTINGS));
+            out.write(stub.toProperties().getBytes(StandardCharsets.UTF_8));
+        }
+        stubJar = jar;
+        return jar;
+    }
+
+    /**
+     * Figures of one or more matches, taken from the first state to the end of the last turn
+     */
+    public static class Measurement implements GameListener {
+        private static final com.sun.management.ThreadMXBean THREADS =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        private final String transport;
+        private int games;
+        private long playerTurns;
+        private long timeouts;
+        private long elapsedNanos;
+        private long botNanos;
+        private long allocatedBytes;
+        private long gcCount;
+        private long gcMillis;
+        private long startNanos;
+        private long startAllocated;
+        private long startGcCount;
+        private long startGcMillis;
+
+        Measurement(String transport) {
+            this.transport = transport;
+        }
+
+        @Override
+        public void gameStarted(Maze maze, List<Player> players, Referee referee) {
+            startGcCount = gcCount();
+            startGcMillis = gcMillis();
+            startAllocated = THREADS.getCurrentThreadAllocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void actionReceived(Player player, String action, boolean timeout, TurnStats stats) {
+            playerTurns++;
+            if (timeout) {
+                timeouts++;
+            }
+            if (stats != null) {
+                botNanos += stats.wallNanos();
+            }
+        }
+
+        @Override
+        public void gameEnded(List<Player> players) {
+            elapsedNanos += System.nanoTime() - startNanos;
+            allocatedBytes += THREADS.getCurrentThreadAllocatedBytes() - startAllocated;
+            gcCount += gcCount() - startGcCount;
+            gcMillis += gcMillis() - startGcMillis;
+            games++;
+        }
+
+        void add(Measurement other) {
+            games += other.games;
+            playerTurns += other.playerTurns;
+            timeouts += other.timeouts;
+            elapsedNanos += other.elapsedNanos;
+            botNanos += other.botNanos;
+            allocatedBytes += other.allocatedBytes;
+            gcCount += other.gcCount;
+            gcMillis += other.gcMillis;
+        }
+
+        public double getTurnsPerSecond() {
+            return playerTurns / Math.max(elapsedNanos / 1e9, 1e-9);
+        }
+
+        /**
+         * Time per player turn not spent waiting for the bot's answer
+         */
+        public double getEngineMicrosPerTurn() {
+            return (elapsedNanos - botNanos) / 1e3 / Math.max(playerTurns, 1);
+        }
+
+        public double getAllocatedBytesPerTurn() {
+            return (double) allocatedBytes / Math.max(playerTurns, 1);
+        }
+
+        private static long gcCount() {
+            long count = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+            }
+            return count;
+        }
+
+        private static long gcMillis() {
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %d games, %d turns: %.0f turns/s, engine %.1f us/turn, "
+                            + "allocated %.1f KB/turn (%.1f MB/s), %d GCs (%d ms)%s",
+                    transport, games, playerTurns, getTurnsPerSecond(), getEngineMicrosPerTurn(),
+                    getAllocatedBytesPerTurn() / 1024, allocatedBytes / 1048576.0 / Math.max(elapsedNanos / 1e9, 1e-9),
+                    gcCount, gcMillis, timeouts > 0 ? ", " + timeouts + " TIMEOUTS" : "");
+        }
+    }
+}
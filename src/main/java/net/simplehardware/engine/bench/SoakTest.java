@@ -0,0 +1,255 @@
+package net.simplehardware.engine.bench;
+
+import net.simplehardware.engine.core.GameEngine;
+import net.simplehardware.engine.core.GameListener;
+import net.simplehardware.engine.core.LaunchProfiles;
+import net.simplehardware.engine.core.TurnStats;
+import net.simplehardware.engine.players.Player;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays rounds of matches between random-action {@link StubBot}s, several at a time, and checks between
+ * rounds, when no match is running, that the engine gave back what it took: live threads, open file
+ * descriptors, child processes and heap after a full GC. The first sample after the warm-up rounds is
+ * the baseline; the soak fails as soon as a later sample stays above baseline plus slack. Stubs stall
+ * past the turn timeout now and then, so the cleanup after timeouts is exercised as well.
+ */
+public class SoakTest {
+    private static final long SETTLE_MS = 5000; // for exited players and their threads to go away
+
+    public record Sample(int threads, long fileDescriptors, long childProcesses, long heapBytes) {
+
+        static Sample take() {
+            System.gc();
+            OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            long fds = os instanceof com.sun.management.UnixOperatingSystemMXBean unix
+                    ? unix.getOpenFileDescriptorCount() : -1;
+            return new Sample(ManagementFactory.getThreadMXBean().getThreadCount(), fds,
+                    ProcessHandle.current().descendants().count(),
+                    ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+
+        @Override
+        public String toString() {
+            return "threads " + threads + ", fds " + fileDescriptors + ", children " + childProcesses + ", heap "
+                    + heapBytes / 1048576 + " MB";
+        }
+    }
+
+    private final EngineBenchmark matches;
+    private final boolean pipes;
+    private final long turnTimeoutMs;
+    private final int concurrency;
+    private final int threadSlack;
+    private final int fdSlack;
+    private final long heapSlackBytes;
+    private final AtomicLong playerTurns = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong failedMatches = new AtomicLong();
+
+    public SoakTest(EngineBenchmark matches, boolean pipes, long turnTimeoutMs, int concurrency, int threadSlack,
+            int fdSlack, long heapSlackBytes) {
+        this.matches = matches;
+        this.pipes = pipes;
+        this.turnTimeoutMs = turnTimeoutMs;
+        this.concurrency = concurrency;
+        this.threadSlack = threadSlack;
+        this.fdSlack = fdSlack;
+        this.heapSlackBytes = heapSlackBytes;
+    }
+
+    public static void main(String[] args) {
+        String mazeFile = "Mazes/03_Zickzack.json";
+        int players = 2;
+        int turns = 200;
+        int matchCount = 2500;
+        int concurrency = 4;
+        int warmupRounds = 3;
+        int sampleEvery = 10;
+        long seed = 1;
+        long timeoutMs = 100;
+        double actionChance = 0.1;
+        double stallChance = 0.002;
+        String transport = "streams";
+        String launchProfilesPath = null;
+        Integer threadSlack = null;
+        int fdSlack = 32;
+        long heapSlackMb = 64;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (args[i].startsWith("--") && value == null) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--map" -> mazeFile = args[++i];
+                    case "--players" -> players = Integer.parseInt(args[++i]);
+                    case "--turns" -> turns = Integer.parseInt(args[++i]);
+                    case "--matches" -> matchCount = Integer.parseInt(args[++i]);
+                    case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                    case "--warmup" -> warmupRounds = Integer.parseInt(args[++i]);
+                    case "--sample-every" -> sampleEvery = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--timeout" -> timeoutMs = Long.parseLong(args[++i]);
+                    case "--action-chance" -> actionChance = Double.parseDouble(args[++i]);
+                    case "--stall-chance" -> stallChance = Double.parseDouble(args[++i]);
+                    case "--transport" -> transport = args[++i];
+                    case "--launch-profiles" -> launchProfilesPath = args[++i];
+                    case "--thread-slack" -> threadSlack = Integer.parseInt(args[++i]);
+                    case "--fd-slack" -> fdSlack = Integer.parseInt(args[++i]);
+                    case "--heap-slack" -> heapSlackMb = Long.parseLong(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+                }
+            }
+            if (!transport.equals("pipes") && !transport.equals("streams")) {
+                throw new IllegalArgumentException("--transport must be pipes or streams");
+            }
+            if (players < 1 || turns < 1 || matchCount < 1 || concurrency < 1 || warmupRounds < 0
+                    || sampleEvery < 1 || timeoutMs < 1) {
+                throw new IllegalArgumentException("Counts and timeout must be positive");
+            }
+
+            StubBot.Settings stub = new StubBot.Settings(0, 0, seed, actionChance, stallChance, timeoutMs * 3);
+            EngineBenchmark matches = new EngineBenchmark(mazeFile, players, turns, stub,
+                    launchProfilesPath != null ? LaunchProfiles.load(launchProfilesPath) : LaunchProfiles.DEFAULT);
+            // Process reaper threads outlive their player JVMs for a while
+            int threads = threadSlack != null ? threadSlack
+                    : 16 + (transport.equals("pipes") ? concurrency * players : 0);
+            SoakTest soak = new SoakTest(matches, transport.equals("pipes"), timeoutMs, concurrency, threads,
+                    fdSlack, heapSlackMb * 1048576);
+            boolean passed = soak.run(matchCount, warmupRounds, sampleEvery, seed);
+            System.exit(passed ? 0 : 1);
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -cp MazeEngine.jar net.simplehardware.engine.bench.SoakTest"
+                    + " [--map <file>] [--players <n>] [--turns <n>] [--matches <n>] [--concurrency <n>]"
+                    + " [--warmup <rounds>] [--sample-every <rounds>] [--seed <long>] [--timeout <ms>]"
+                    + " [--action-chance <0-1>] [--stall-chance <0-1>] [--transport pipes|streams]"
+                    + " [--launch-profiles <file>] [--thread-slack <n>] [--fd-slack <n>] [--heap-slack <MB>]");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Play {@code matchCount} matches in rounds of {@code concurrency}
+     *
+     * @return whether every sample stayed within baseline plus slack
+     */
+    public boolean run(int matchCount, int warmupRounds, int sampleEvery, long seed) throws InterruptedException {
+        int rounds = (matchCount + concurrency - 1) / concurrency;
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        Sample baseline = null;
+        Sample peak = null;
+        long start = System.nanoTime();
+        try {
+            for (int round = 0; round < warmupRounds + rounds; round++) {
+                playRound(pool, seed + (long) round * concurrency);
+
+                boolean warm = round >= warmupRounds;
+                if (baseline == null && warm) {
+                    baseline = settle(null);
+                    peak = baseline;
+                    System.out.println("Baseline after " + warmupRounds + " warm-up rounds: " + baseline);
+                } else if (warm && (round - warmupRounds) % sampleEvery == 0 || round == warmupRounds + rounds - 1) {
+                    Sample sample = settle(baseline);
+                    peak = max(peak, sample);
+                    System.out.printf("%d matches, %d player turns, %d timeouts, %.0f s: %s%n",
+                            (round + 1 - warmupRounds) * concurrency, playerTurns.get(), timeouts.get(),
+                            (System.nanoTime() - start) / 1e9, sample);
+                    String leak = exceeded(baseline, sample);
+                    if (leak != null) {
+                        System.out.println("FAILED: " + leak + " grew past its bound (baseline " + baseline + ")");
+                        return false;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        System.out.println("PASSED: " + playerTurns.get() + " player turns, " + timeouts.get() + " timeouts, "
+                + failedMatches.get() + " failed matches; peak " + peak);
+        return failedMatches.get() == 0;
+    }
+
+    private void playRound(ExecutorService pool, long seed) throws InterruptedException {
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            long matchSeed = seed + i;
+            running.add(pool.submit(() -> playMatch(matchSeed)));
+        }
+        for (Future<?> match : running) {
+            try {
+                match.get();
+            } catch (ExecutionException e) {
+                if (failedMatches.incrementAndGet() <= 5) {
+                    System.out.println("Match failed: " + e.getCause());
+                }
+            }
+        }
+    }
+
+    private Void playMatch(long seed) throws Exception {
+        GameEngine.GameConfig config = matches.defaultConfig();
+        config.turnTimeoutMs = turnTimeoutMs;
+        if (!pipes) {
+            config.firstTurnTimeoutMs = turnTimeoutMs;
+        }
+        GameEngine engine = matches.createMatch(pipes, seed, config);
+        engine.addListener(new GameListener() {
+            @Override
+            public void actionReceived(Player player, String action, boolean timeout, TurnStats stats) {
+                playerTurns.incrementAndGet();
+                if (timeout) {
+                    timeouts.incrementAndGet();
+                }
+            }
+        });
+        engine.initialize();
+        engine.runGame();
+        return null;
+    }
+
+    /**
+     * Sample until the figures are within bounds or {@link #SETTLE_MS} has passed
+     */
+    private Sample settle(Sample baseline) throws InterruptedException {
+        long deadline = System.nanoTime() + SETTLE_MS * 1_000_000;
+        Sample sample = Sample.take();
+        while (baseline != null && exceeded(baseline, sample) != null && System.nanoTime() < deadline) {
+            Thread.sleep(250);
+            sample = Sample.take();
+        }
+        return sample;
+    }
+
+    private String exceeded(Sample baseline, Sample sample) {
+        if (sample.threads() > baseline.threads() + threadSlack) {
+            return "thread count";
+        }
+        if (baseline.fileDescriptors() >= 0 && sample.fileDescriptors() > baseline.fileDescriptors() + fdSlack) {
+            return "open file descriptors";
+        }
+        if (sample.childProcesses() > baseline.childProcesses()) {
+            return "child processes";
+        }
+        if (sample.heapBytes() > baseline.heapBytes() + heapSlackBytes) {
+            return "heap after GC";
+        }
+        return null;
+    }
+
+    private static Sample max(Sample a, Sample b) {
+        return new Sample(Math.max(a.threads(), b.threads()), Math.max(a.fileDescriptors(), b.fileDescriptors()),
+                Math.max(a.childProcesses(), b.childProcesses()), Math.max(a.heapBytes(), b.heapBytes()));
+    }
+}
@@ -0,0 +1,91 @@
+package net.simplehardware.engine.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * A {@link Process} whose program is a {@link StubBot} running on a thread of this JVM, connected by
+ * piped streams. The engine talks to it exactly as to a player JVM, minus the operating system pipes
+ * and process scheduling. Its handle is this JVM's, so CPU and memory figures cover the whole engine.
+ */
+public class StreamProcess extends Process {
+    private static final int PIPE_BYTES = 1 << 16;
+
+    private final PipedOutputStream stdin = new PipedOutputStream();
+    private final PipedInputStream stdout;
+    private final PipedInputStream stderr;
+    private final Thread thread;
+
+    public StreamProcess(String name, StubBot.Settings settings) {
+        try {
+            PipedInputStream botIn = new PipedInputStream(stdin, PIPE_BYTES);
+            PipedOutputStream botOut = new PipedOutputStream();
+            PipedOutputStream botErr = new PipedOutputStream();
+            this.stdout = new PipedInputStream(botOut, PIPE_BYTES);
+            this.stderr = new PipedInputStream(botErr, PIPE_BYTES);
+            StubBot bot = new StubBot(botIn, botOut, botErr, settings);
+            this.thread = new Thread(() -> {
+                try (botIn; botOut; botErr) {
+                    bot.run();
+                } catch (IOException ignored) {
+                }
+            }, name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return stdin;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return stdout;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return stderr;
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        thread.join();
+        return 0;
+    }
+
+    @Override
+    public int exitValue() {
+        if (thread.isAlive()) {
+            throw new IllegalThreadStateException("Stub bot still running");
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return thread.isAlive();
+    }
+
+    @Override
+    public void destroy() {
+        thread.interrupt();
+        try {
+            stdin.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public ProcessHandle toHandle() {
+        return ProcessHandle.current();
+    }
+}
@@ -0,0 +1,141 @@
+package net.simplehardware.engine.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Stand-in for a player JAR that speaks the stdin/stdout protocol: every turn it waits a fixed delay,
+ * writes a fixed amount of stderr and moves in a random open direction. Optionally it sends random
+ * other actions and now and then stalls past the turn timeout. It uses nothing else from the engine,
+ * so {@link EngineBenchmark} can pack it into a JAR of its own.
+ */
+public class StubBot implements Runnable {
+    public static final String SETTINGS = "stub.properties";
+    private static final String[] DIRECTIONS = { "NORTH", "EAST", "SOUTH", "WEST" };
+    private static final String[] OTHER_ACTIONS = { "TAKE", "PUT", "KICK NORTH", "KICK SOUTH", "POSITION",
+            "FINISH", "", "JUMP AROUND" };
+
+    /**
+     * @param outputBytes stderr written every turn
+     * @param actionChance share of turns answered with a random action other than a move
+     * @param stallChance share of turns that wait {@code stallMs} before answering
+     */
+    public record Settings(long delayMs, int outputBytes, long seed, double actionChance, double stallChance,
+                           long stallMs) {
+
+        public Settings(long delayMs, int outputBytes, long seed) {
+            this(delayMs, outputBytes, seed, 0, 0, 0);
+        }
+
+        public Settings withSeed(long seed) {
+            return new Settings(delayMs, outputBytes, seed, actionChance, stallChance, stallMs);
+        }
+
+        static Settings load(Properties properties) {
+            return new Settings(Long.parseLong(properties.getProperty("delayMs", "0")),
+                    Integer.parseInt(properties.getProperty("outputBytes", "0")),
+                    Long.parseLong(properties.getProperty("seed", "1")),
+                    Double.parseDouble(properties.getProperty("actionChance", "0")),
+                    Double.parseDouble(properties.getProperty("stallChance", "0")),
+                    Long.parseLong(properties.getProperty("stallMs", "0")));
+        }
+
+        String toProperties() {
+            return "delayMs=" + delayMs + "\noutputBytes=" + outputBytes + "\nseed=" + seed
+                    + "\nactionChance=" + actionChance + "\nstallChance=" + stallChance + "\nstallMs=" + stallMs + "\n";
+        }
+    }
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final OutputStream err;
+    private final Settings settings;
+    private final byte[] output;
+
+    public StubBot(InputStream in, OutputStream out, OutputStream err, Settings settings) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.out = new PrintStream(out, false, StandardCharsets.UTF_8);
+        this.err = err;
+        this.settings = settings;
+        this.output = new byte[settings.outputBytes()];
+        Arrays.fill(output, (byte) 'x');
+        for (int i = 99; i < output.length; i += 100) {
+            output[i] = '\n';
+        }
+    }
+
+    /**
+     * Entry point of the stub JAR; the settings are read from {@link #SETTINGS} inside it
+     */
+    public static void main(String[] args) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream stream = StubBot.class.getResourceAsStream("/" + SETTINGS)) {
+            if (stream != null) {
+                properties.load(stream);
+            }
+        }
+        new StubBot(System.in, System.out, System.err, Settings.load(properties)).run();
+    }
+
+    @Override
+    public void run() {
+        try {
+            in.readLine(); // MAZE_WIDTH MAZE_HEIGHT LEAGUE_LEVEL
+            String start = in.readLine(); // PLAYER_ID START_X START_Y [SHEETS]
+            if (start == null) {
+                return;
+            }
+            Random random = new Random(settings.seed() * 31 + Integer.parseInt(start.split(" ")[0]));
+
+            String[] lines = new String[6];
+            while (true) {
+                for (int i = 0; i < lines.length; i++) {
+                    if ((lines[i] = in.readLine()) == null) {
+                        return;
+                    }
+                }
+                if (settings.delayMs() > 0) {
+                    Thread.sleep(settings.delayMs());
+                }
+                if (settings.stallChance() > 0 && random.nextDouble() < settings.stallChance()) {
+                    Thread.sleep(settings.stallMs());
+                }
+                if (output.length > 0) {
+                    err.write(output);
+                    err.flush();
+                }
+                out.println(settings.actionChance() > 0 && random.nextDouble() < settings.actionChance()
+                        ? OTHER_ACTIONS[random.nextInt(OTHER_ACTIONS.length)]
+                        : "GO " + pickDirection(lines, random));
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Engine went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Random direction whose neighbour line (north, east, south, west after the result and the
+     * current cell) is not a wall
+     */
+    private static String pickDirection(String[] lines, Random random) {
+        int open = 0;
+        int[] candidates = new int[4];
+        for (int i = 0; i < 4; i++) {
+            if (!lines[i + 2].startsWith("WALL")) {
+                candidates[open++] = i;
+            }
+        }
+        return DIRECTIONS[open > 0 ? candidates[random.nextInt(open)] : random.nextInt(4)];
+    }
+}
@@ -29,6 +29,10 @@ public class FinishCell extends Cell {
         return playerId;
     }
     
+    public int getRequiredFormCount() {
+        return requiredFormCount;
+    }
+
     public void setRequiredFormCount(int count) {
         this.requiredFormCount = count;
     }
@@ -0,0 +1,85 @@
+package net.simplehardware.engine.cluster;
+
+import com.google.gson.Gson;
+import net.simplehardware.models.MatchResultData;
+import net.simplehardware.models.MatchSpecData;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format between coordinator and workers: each message is an int length followed by UTF-8 JSON.
+ * A BLOB message is followed by exactly {@code size} raw bytes of file content.
+ * <pre>
+ * worker      -> coordinator: HELLO {worker}
+ * coordinator -> worker:      MATCH {spec} | BYE
+ * worker      -> coordinator: NEED {hash}   (repeated for every file missing from the cache)
+ * coordinator -> worker:      BLOB {hash, size} + bytes
+ * worker      -> coordinator: RESULT {result}
+ * </pre>
+ */
+final class ClusterProtocol {
+    static final String HELLO = "HELLO";
+    static final String MATCH = "MATCH";
+    static final String BYE = "BYE";
+    static final String NEED = "NEED";
+    static final String BLOB = "BLOB";
+    static final String RESULT = "RESULT";
+
+    private static final int MAX_MESSAGE_BYTES = 16 << 20;
+    private static final Gson GSON = new Gson();
+
+    static class Message {
+        String type;
+        String worker;
+        String hash;
+        long size;
+        MatchSpecData spec;
+        MatchResultData result;
+
+        Message(String type) {
+            this.type = type;
+        }
+    }
+
+    private ClusterProtocol() {
+    }
+
+    static void send(DataOutputStream out, Message message) throws IOException {
+        byte[] json = GSON.toJson(message).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(json.length);
+        out.write(json);
+        out.flush();
+    }
+
+    static Message receive(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_MESSAGE_BYTES) {
+            throw new IOException("Bad message length " + length);
+        }
+        byte[] json = new byte[length];
+        in.readFully(json);
+        Message message = GSON.fromJson(new String(json, StandardCharsets.UTF_8), Message.class);
+        if (message == null || message.type == null) {
+            throw new IOException("Message without type");
+        }
+        return message;
+    }
+
+    static void copy(InputStream in, DataOutputStream out, long size) throws IOException {
+        byte[] buffer = new byte[1 << 16];
+        long remaining = size;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                throw new IOException("File shrank while sending");
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+        out.flush();
+    }
+}
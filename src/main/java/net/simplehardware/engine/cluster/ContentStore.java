@@ -0,0 +1,84 @@
+package net.simplehardware.engine.cluster;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Files cached by the SHA-256 of their content. Several workers may share one directory.
+ */
+public class ContentStore {
+    private final Path dir;
+
+    public ContentStore(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * The cached file, or null if it has not been stored yet
+     */
+    public Path find(String hash, String extension) {
+        Path path = dir.resolve(hash + extension);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * Read {@code size} bytes into the cache, rejecting them if they do not match the hash
+     */
+    public Path store(String hash, String extension, InputStream in, long size) throws IOException {
+        Path temp = dir.resolve(hash + "." + UUID.randomUUID() + ".tmp");
+        MessageDigest digest = sha256();
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            byte[] buffer = new byte[1 << 16];
+            long remaining = size;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new IOException("Connection closed while receiving " + hash);
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        if (!HexFormat.of().formatHex(digest.digest()).equals(hash)) {
+            Files.deleteIfExists(temp);
+            throw new IOException("Received file does not match hash " + hash);
+        }
+        Path path = dir.resolve(hash + extension);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return path;
+    }
+
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
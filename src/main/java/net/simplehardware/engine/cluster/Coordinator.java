@@ -0,0 +1,271 @@
+package net.simplehardware.engine.cluster;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import net.simplehardware.engine.core.BotConnection;
+import net.simplehardware.engine.results.ResultStore;
+import net.simplehardware.models.MatchResultData;
+import net.simplehardware.models.MatchSpecData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds a queue of matches and hands them to {@link Worker}s connecting over TCP. Every worker
+ * connection runs one match at a time; a match whose worker disconnects is queued again.
+ * Results are printed and appended to a {@link ResultStore}.
+ */
+public class Coordinator {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final int port;
+    private final BlockingQueue<MatchSpecData> queue = new LinkedBlockingQueue<>();
+    private final Map<String, Path> files = new HashMap<>();
+    private final Map<String, Integer> attempts = new HashMap<>();
+    private final CountDownLatch remaining;
+    private final List<Thread> handlers = new CopyOnWriteArrayList<>();
+    private final ResultStore results;
+
+    public Coordinator(int port, List<MatchSpecData> specs, Map<String, Path> files, ResultStore results) {
+        this.port = port;
+        this.queue.addAll(specs);
+        this.files.putAll(files);
+        this.remaining = new CountDownLatch(specs.size());
+        this.results = results;
+    }
+
+    public static void main(String[] args) {
+        int port = 7070;
+        String matchesPath = null;
+        String resultsPath = "results";
+        int repeat = 1;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (args[i].startsWith("--") && value == null) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--matches" -> matchesPath = args[++i];
+                    case "--results" -> resultsPath = args[++i];
+                    case "--repeat" -> repeat = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+                }
+            }
+            if (matchesPath == null) {
+                throw new IllegalArgumentException("--matches argument is required");
+            }
+
+            List<MatchSpecData> templates;
+            try (FileReader reader = new FileReader(matchesPath)) {
+                templates = new Gson().fromJson(reader, new TypeToken<List<MatchSpecData>>() {
+                }.getType());
+            }
+            Map<String, Path> files = new HashMap<>();
+            List<MatchSpecData> specs = prepare(templates, repeat, files);
+
+            ResultStore store = new ResultStore(Path.of(resultsPath));
+            long start = System.nanoTime();
+            new Coordinator(port, specs, files, store).run();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Ran %d matches in %.1f s (%.2f matches/s)%n", specs.size(), seconds,
+                    specs.size() / seconds);
+            store.printLeaderboard(20);
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -cp MazeEngine.jar net.simplehardware.engine.cluster.Coordinator"
+                    + " --matches <matches.json> [--port <n>] [--results <dir>] [--repeat <n>]");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Hash the maze and player files of the templates and expand each one {@code repeat} times.
+     * Repeats of a seeded match get consecutive seeds.
+     */
+    public static List<MatchSpecData> prepare(List<MatchSpecData> templates, int repeat, Map<String, Path> files)
+            throws IOException {
+        List<MatchSpecData> specs = new ArrayList<>();
+        for (int t = 0; t < templates.size(); t++) {
+            MatchSpecData template = templates.get(t);
+            template.mazeHash = register(template.mazeFile, files);
+            template.playerHashes = new ArrayList<>();
+            for (String player : template.players) {
+                template.playerHashes.add(player.startsWith(BotConnection.PREFIX) ? null : register(player, files));
+            }
+            for (int r = 0; r < repeat; r++) {
+                MatchSpecData spec = gsonCopy(template);
+                spec.id = (t + 1) + "-" + (r + 1);
+                if (template.seed != null) {
+                    spec.seed = template.seed + r;
+                }
+                specs.add(spec);
+            }
+        }
+        return specs;
+    }
+
+    private static String register(String path, Map<String, Path> files) throws IOException {
+        Path file = Path.of(path);
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("File not found: " + path);
+        }
+        String hash = ContentStore.hash(file);
+        files.put(hash, file);
+        return hash;
+    }
+
+    private static MatchSpecData gsonCopy(MatchSpecData spec) {
+        Gson gson = new Gson();
+        return gson.fromJson(gson.toJson(spec), MatchSpecData.class);
+    }
+
+    /**
+     * Accept workers until every match has a result
+     */
+    public void run() throws IOException, InterruptedException {
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.println("Coordinator listening on port " + server.getLocalPort() + " with "
+                    + queue.size() + " matches");
+            Thread acceptor = new Thread(() -> {
+                while (!server.isClosed()) {
+                    try {
+                        Socket socket = server.accept();
+                        Thread handler = new Thread(() -> serve(socket), "coordinator-" + socket.getPort());
+                        handler.setDaemon(true);
+                        handlers.add(handler);
+                        handler.start();
+                    } catch (IOException e) {
+                        // Server closed
+                    }
+                }
+            }, "coordinator-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            remaining.await();
+        }
+        // Let idle workers receive their BYE
+        for (Thread handler : handlers) {
+            handler.join(5000);
+        }
+    }
+
+    private void serve(Socket socket) {
+        MatchSpecData current = null;
+        String worker = socket.getRemoteSocketAddress().toString();
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            ClusterProtocol.Message hello = ClusterProtocol.receive(in);
+            if (!ClusterProtocol.HELLO.equals(hello.type)) {
+                throw new IOException("Expected HELLO, got " + hello.type);
+            }
+            if (hello.worker != null) {
+                worker = hello.worker;
+            }
+            System.out.println("Worker connected: " + worker);
+
+            while (true) {
+                current = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (current == null) {
+                    if (remaining.getCount() == 0) {
+                        ClusterProtocol.send(out, new ClusterProtocol.Message(ClusterProtocol.BYE));
+                        return;
+                    }
+                    continue;
+                }
+
+                ClusterProtocol.Message match = new ClusterProtocol.Message(ClusterProtocol.MATCH);
+                match.spec = current;
+                ClusterProtocol.send(out, match);
+
+                while (true) {
+                    ClusterProtocol.Message message = ClusterProtocol.receive(in);
+                    if (ClusterProtocol.NEED.equals(message.type)) {
+                        sendFile(out, message.hash);
+                    } else if (ClusterProtocol.RESULT.equals(message.type)) {
+                        record(message.result, worker);
+                        current = null;
+                        break;
+                    } else {
+                        throw new IOException("Unexpected message " + message.type);
+                    }
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Worker " + worker + " lost: " + e.getMessage());
+            if (current != null) {
+                retry(current, e.getMessage());
+            }
+        }
+    }
+
+    private void sendFile(DataOutputStream out, String hash) throws IOException {
+        Path file = files.get(hash);
+        if (file == null) {
+            throw new IOException("Worker asked for unknown file " + hash);
+        }
+        ClusterProtocol.Message blob = new ClusterProtocol.Message(ClusterProtocol.BLOB);
+        blob.hash = hash;
+        blob.size = Files.size(file);
+        ClusterProtocol.send(out, blob);
+        try (InputStream in = Files.newInputStream(file)) {
+            ClusterProtocol.copy(in, out, blob.size);
+        }
+    }
+
+    private void retry(MatchSpecData spec, String reason) {
+        int attempt;
+        synchronized (attempts) {
+            attempt = attempts.merge(spec.id, 1, Integer::sum);
+        }
+        if (attempt < MAX_ATTEMPTS) {
+            queue.add(spec);
+            return;
+        }
+        MatchResultData failed = new MatchResultData();
+        failed.matchId = spec.id;
+        failed.mazeFile = spec.mazeFile;
+        failed.error = "Gave up after " + attempt + " attempts: " + reason;
+        record(failed, null);
+    }
+
+    private void record(MatchResultData result, String worker) {
+        if (result.worker == null) {
+            result.worker = worker;
+        }
+        synchronized (results) {
+            try {
+                results.append(result);
+            } catch (IOException e) {
+                System.err.println("Could not write result of match " + result.matchId + ": " + e.getMessage());
+            }
+            System.out.println("Match " + result.matchId + " on " + result.worker + ": "
+                    + (result.error != null ? "ERROR " + result.error
+                            : result.winner != null ? "winner player " + result.winner : "tie")
+                    + " (" + (remaining.getCount() - 1) + " left)");
+        }
+        remaining.countDown();
+    }
+}
@@ -0,0 +1,172 @@
+package net.simplehardware.engine.cluster;
+
+import net.simplehardware.engine.core.GameEngine;
+import net.simplehardware.engine.game.CompiledMaze;
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.models.MatchResultData;
+import net.simplehardware.models.MatchSpecData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs matches handed out by a {@link Coordinator}, one at a time. Maze and player files are
+ * fetched on first use and cached by content hash. Start one worker per core to use a whole machine.
+ */
+public class Worker {
+    private final String host;
+    private final int port;
+    private final String name;
+    private final ContentStore store;
+
+    public Worker(String host, int port, String name, ContentStore store) {
+        this.host = host;
+        this.port = port;
+        this.name = name;
+        this.store = store;
+    }
+
+    public static void main(String[] args) {
+        String coordinator = "localhost:7070";
+        String cacheDir = ".worker-cache";
+        String name = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (args[i].startsWith("--") && value == null) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--coordinator" -> coordinator = args[++i];
+                    case "--cache" -> cacheDir = args[++i];
+                    case "--name" -> name = args[++i];
+                    default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+                }
+            }
+            int colon = coordinator.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Coordinator must be host:port");
+            }
+            if (name == null) {
+                name = InetAddress.getLocalHost().getHostName() + "/" + ProcessHandle.current().pid();
+            }
+
+            new Worker(coordinator.substring(0, colon), Integer.parseInt(coordinator.substring(colon + 1)), name,
+                    new ContentStore(Path.of(cacheDir))).run();
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -cp MazeEngine.jar net.simplehardware.engine.cluster.Worker"
+                    + " [--coordinator <host:port>] [--cache <dir>] [--name <name>]");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Take matches until the coordinator says goodbye
+     */
+    public void run() throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            ClusterProtocol.Message hello = new ClusterProtocol.Message(ClusterProtocol.HELLO);
+            hello.worker = name;
+            ClusterProtocol.send(out, hello);
+            System.out.println("Worker " + name + " connected to " + host + ":" + port);
+
+            while (true) {
+                ClusterProtocol.Message message;
+                try {
+                    message = ClusterProtocol.receive(in);
+                } catch (EOFException e) {
+                    System.out.println("Coordinator closed the connection");
+                    return;
+                }
+                if (ClusterProtocol.BYE.equals(message.type)) {
+                    System.out.println("No more matches");
+                    return;
+                }
+                if (!ClusterProtocol.MATCH.equals(message.type)) {
+                    throw new IOException("Unexpected message " + message.type);
+                }
+
+                MatchResultData result = runMatch(message.spec, in, out);
+                ClusterProtocol.Message reply = new ClusterProtocol.Message(ClusterProtocol.RESULT);
+                reply.result = result;
+                ClusterProtocol.send(out, reply);
+            }
+        }
+    }
+
+    private MatchResultData runMatch(MatchSpecData spec, DataInputStream in, DataOutputStream out)
+            throws IOException {
+        System.out.println("Match " + spec.id + ": " + spec.mazeFile + " " + spec.players);
+        long start = System.nanoTime();
+
+        // Files first: a broken connection here must reach the coordinator so it can retry
+        String extension = spec.mazeFile.endsWith(CompiledMaze.EXTENSION) ? CompiledMaze.EXTENSION : ".json";
+        Path mazePath = fetch(spec.mazeHash, extension, in, out);
+        List<String> playerPaths = new ArrayList<>();
+        for (int i = 0; i < spec.players.size(); i++) {
+            String hash = spec.playerHashes.get(i);
+            playerPaths.add(hash == null ? spec.players.get(i) : fetch(hash, ".jar", in, out).toString());
+        }
+
+        MatchResultData result;
+        try {
+            // Keep the engine report off the worker console
+            GameEngine.GameConfig config = GameEngine.GameConfig.of(spec);
+            config.turnInfo = 0;
+            config.logging = 0;
+            config.report = false;
+            config.out = new PrintStream(OutputStream.nullOutputStream());
+
+            GameEngine engine = new GameEngine(Maze.load(mazePath.toString()), playerPaths, config);
+            engine.initialize();
+            engine.runGame();
+            result = engine.getResult();
+            for (int i = 0; i < result.players.size(); i++) {
+                MatchResultData.PlayerResult player = result.players.get(i);
+                player.bot = spec.players.get(player.id - 1);
+            }
+        } catch (RuntimeException | IOException e) {
+            result = new MatchResultData();
+            result.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+
+        result.matchId = spec.id;
+        result.mazeFile = spec.mazeFile;
+        result.worker = name;
+        result.durationMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Match " + spec.id + " done in " + result.durationMs + " ms");
+        return result;
+    }
+
+    private Path fetch(String hash, String extension, DataInputStream in, DataOutputStream out) throws IOException {
+        Path cached = store.find(hash, extension);
+        if (cached != null) {
+            return cached;
+        }
+        ClusterProtocol.Message need = new ClusterProtocol.Message(ClusterProtocol.NEED);
+        need.hash = hash;
+        ClusterProtocol.send(out, need);
+
+        ClusterProtocol.Message blob = ClusterProtocol.receive(in);
+        if (!ClusterProtocol.BLOB.equals(blob.type) || !hash.equals(blob.hash)) {
+            throw new IOException("Expected file " + hash + ", got " + blob.type);
+        }
+        return store.store(hash, extension, in, blob.size);
+    }
+}
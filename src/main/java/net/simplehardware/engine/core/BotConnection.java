@@ -0,0 +1,66 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.players.Bot;
+import net.simplehardware.engine.players.StartInfo;
+import net.simplehardware.engine.players.TurnInfo;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.io.IOException;
+
+/**
+ * Connection to an in-process {@link Bot}. The bot is called on the engine thread, so turn
+ * timeouts do not apply; its chosen action is reported as its stdout.
+ */
+public class BotConnection implements PlayerConnection {
+    public static final String PREFIX = "bot:";
+
+    private final Bot bot;
+    private final StringBuilder stdout = new StringBuilder();
+
+    public BotConnection(Bot bot) {
+        this.bot = bot;
+    }
+
+    /**
+     * Instantiate a bot from a {@code bot:<class name>} player path
+     */
+    public static BotConnection load(String playerPath) throws IOException {
+        String className = playerPath.substring(PREFIX.length());
+        try {
+            Bot bot = Class.forName(className).asSubclass(Bot.class).getDeclaredConstructor().newInstance();
+            return new BotConnection(bot);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IOException("Cannot load bot " + className + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void start(StartInfo info) {
+        bot.start(info);
+    }
+
+    @Override
+    public String requestAction(TurnInfo turn, long timeoutMs) {
+        String action = bot.act(turn);
+        if (action != null) {
+            stdout.append(action).append('\n');
+        }
+        return action;
+    }
+
+    @Override
+    public PlayerLog takeLog() {
+        PlayerLog log = new PlayerLog(stdout.toString(), "");
+        stdout.setLength(0);
+        return log;
+    }
+
+    @Override
+    public boolean isExternal() {
+        return false;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
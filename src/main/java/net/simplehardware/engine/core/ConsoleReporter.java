@@ -0,0 +1,67 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.core.EngineLog.Kind;
+import net.simplehardware.engine.core.EngineLog.Level;
+import net.simplehardware.engine.game.ActionResult;
+import net.simplehardware.engine.players.Player;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.util.Map;
+
+/**
+ * Reports the course of a match to an {@link EngineLog}: actions, results and resource usage at
+ * {@link Level#TURN}, timeouts always, and player stderr with logging
+ */
+public class ConsoleReporter implements GameListener {
+    private final EngineLog log;
+    private final boolean logging;
+
+    public ConsoleReporter(EngineLog log, boolean logging) {
+        this.log = log;
+        this.logging = logging;
+    }
+
+    @Override
+    public void turnStarted(int turn) {
+        log.log(Level.TURN, Kind.TURN_START, 0, turn, null);
+    }
+
+    @Override
+    public boolean wantsResourceStats() {
+        return true;
+    }
+
+    @Override
+    public void actionReceived(Player player, String action, boolean timeout, TurnStats stats) {
+        if (stats != null) {
+            log.log(Level.TURN, Kind.STATS, player.getId(), stats);
+        }
+        if (timeout) {
+            log.log(Level.WARN, Kind.TIMEOUT, player.getId(), null);
+        } else if (action == null) {
+            log.log(Level.INFO, Kind.NO_ACTION, player.getId(), null);
+        } else if (action.trim().isEmpty()) {
+            log.log(Level.TURN, Kind.NO_ACTION, player.getId(), null);
+        } else {
+            log.log(Level.TURN, Kind.ACTION, player.getId(), action);
+        }
+    }
+
+    @Override
+    public void actionResolved(Player player, String action, ActionResult result) {
+        log.log(Level.TURN, Kind.RESULT, player.getId(), result);
+    }
+
+    @Override
+    public void turnEnded(int turn, Map<Integer, PlayerLog> logs) {
+        log.log(Level.TURN, Kind.TURN_END, 0, null);
+        if (!logging) {
+            return;
+        }
+        for (Map.Entry<Integer, PlayerLog> entry : logs.entrySet()) {
+            if (entry.getValue().hasStderr()) {
+                log.log(Level.INFO, Kind.STDERR, entry.getKey(), entry.getValue().stderr());
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package net.simplehardware.engine.core;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous log of a match. Events are written into a preallocated ring of slots and formatted
+ * and printed by a background thread, so the turn loop never waits on console or file I/O unless
+ * the ring is full. An event below the log's level is dropped before anything is stored, and
+ * enabled events only keep references to their arguments; no text is built on the engine thread.
+ */
+public final class EngineLog implements AutoCloseable {
+
+    public enum Level {
+        WARN, INFO, TURN
+    }
+
+    /**
+     * What an event says; the text is only assembled when it is printed
+     */
+    public enum Kind {
+        ROUND(false) {
+            @Override
+            String format(Slot slot) {
+                return "DEBUG: Running turn " + slot.value;
+            }
+        },
+        TURN_START(false) {
+            @Override
+            String format(Slot slot) {
+                return "--- Turn " + slot.value + " ---";
+            }
+        },
+        TURN_END(false) {
+            @Override
+            String format(Slot slot) {
+                return "";
+            }
+        },
+        STATS(false) {
+            @Override
+            String format(Slot slot) {
+                return "  Player " + slot.player + " " + slot.arg;
+            }
+        },
+        ACTION(false) {
+            @Override
+            String format(Slot slot) {
+                return "Player " + slot.player + ": " + slot.arg;
+            }
+        },
+        NO_ACTION(false) {
+            @Override
+            String format(Slot slot) {
+                return "Player " + slot.player + ": <no action>";
+            }
+        },
+        TIMEOUT(false) {
+            @Override
+            String format(Slot slot) {
+                return "Player " + slot.player + ": TIMEOUT";
+            }
+        },
+        RESULT(false) {
+            @Override
+            String format(Slot slot) {
+                return "  Result: " + slot.arg;
+            }
+        },
+        EXTRA_LINES(false) {
+            @Override
+            String format(Slot slot) {
+                return "Player " + slot.player + " output " + slot.value + " lines, using: " + slot.arg;
+            }
+        },
+        NOT_READY(false) {
+            @Override
+            String format(Slot slot) {
+                return "Player " + slot.player + " did not report ready within " + slot.value + " ms";
+            }
+        },
+        STDERR(true) {
+            @Override
+            String format(Slot slot) {
+                String text = String.valueOf(slot.arg);
+                return "=== Player " + slot.player + " stderr ===\n"
+                        + (text.endsWith("\n") ? text.substring(0, text.length() - 1) : text);
+            }
+        };
+
+        private final boolean toErr;
+
+        Kind(boolean toErr) {
+            this.toErr = toErr;
+        }
+
+        abstract String format(Slot slot);
+    }
+
+    static final class Slot {
+        volatile long sequence = -1;
+        Kind kind;
+        int player;
+        long value;
+        Object arg;
+    }
+
+    private static final int CAPACITY = 4096; // power of two
+    private static final long FULL_PARK_NANOS = 200_000;
+
+    private final Slot[] ring = new Slot[CAPACITY];
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private volatile boolean closed;
+    private volatile boolean idle; // drainer is about to park until the next event
+    private final PrintStream out;
+    private final PrintStream err;
+    private final Level level;
+    private final Thread drainer;
+
+    public EngineLog(PrintStream out, PrintStream err, Level level) {
+        this.out = out;
+        this.err = err;
+        this.level = level;
+        for (int i = 0; i < CAPACITY; i++) {
+            ring[i] = new Slot();
+        }
+        this.drainer = new Thread(this::drain, "engine-log");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * The text of an event, for engines that print without a log
+     */
+    static String format(Kind kind, int player, long value, Object arg) {
+        Slot slot = new Slot();
+        slot.player = player;
+        slot.value = value;
+        slot.arg = arg;
+        return kind.format(slot);
+    }
+
+    public boolean isEnabled(Level eventLevel) {
+        return eventLevel.ordinal() <= level.ordinal();
+    }
+
+    public void log(Level eventLevel, Kind kind, int player, long value, Object arg) {
+        if (!isEnabled(eventLevel)) {
+            return;
+        }
+        long sequence = claimed.getAndIncrement();
+        while (sequence - consumed >= CAPACITY) {
+            LockSupport.parkNanos(FULL_PARK_NANOS); // Ring full, let the printer catch up
+        }
+        Slot slot = ring[(int) (sequence & (CAPACITY - 1))];
+        slot.kind = kind;
+        slot.player = player;
+        slot.value = value;
+        slot.arg = arg;
+        slot.sequence = sequence; // Publishes the fields above
+        if (idle) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    public void log(Level eventLevel, Kind kind, int player, Object arg) {
+        log(eventLevel, kind, player, 0, arg);
+    }
+
+    /**
+     * Wait until everything logged so far is printed, before writing to the same stream directly
+     */
+    public void flush() {
+        long target = claimed.get();
+        while (consumed < target && drainer.isAlive()) {
+            LockSupport.unpark(drainer);
+            Thread.onSpinWait();
+        }
+        out.flush();
+        err.flush();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        closed = true;
+        LockSupport.unpark(drainer);
+    }
+
+    private void drain() {
+        long next = 0;
+        while (true) {
+            Slot slot = ring[(int) (next & (CAPACITY - 1))];
+            if (slot.sequence != next) {
+                if (closed) {
+                    return;
+                }
+                out.flush();
+                // Announce the park before checking again, so a publisher either sees it or is seen
+                idle = true;
+                if (slot.sequence != next && !closed) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                continue;
+            }
+            String text = slot.kind.format(slot);
+            (slot.kind.toErr ? err : out).println(text);
+            slot.arg = null;
+            consumed = ++next;
+        }
+    }
+}
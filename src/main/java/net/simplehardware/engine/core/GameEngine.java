@@ -3,328 +3,403 @@ package net.simplehardware.engine.core;
 import net.simplehardware.engine.game.ActionResult;
 import net.simplehardware.engine.game.Direction;
 import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.game.MazeOracle;
+import net.simplehardware.engine.game.Occupancy;
+import net.simplehardware.engine.players.Bot;
 import net.simplehardware.engine.players.Player;
-import net.simplehardware.engine.cells.Cell;
-import net.simplehardware.engine.viewer.elements.GameState;
+import net.simplehardware.engine.players.StartInfo;
+import net.simplehardware.engine.players.TurnInfo;
 import net.simplehardware.engine.viewer.elements.PlayerLog;
+import net.simplehardware.models.MatchLogData;
+import net.simplehardware.models.MatchResultData;
+import net.simplehardware.models.MatchSpecData;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 public class GameEngine {
     private final Maze maze;
     private final List<Player> players;
-    private final Map<Player, PlayerProcess> playerProcesses;
+    private final Map<Player, PlayerConnection> connections;
     private final Referee referee;
+    private final MazeOracle oracle;
     private final int leagueLevel;
     private final int maxTurns;
     private final long turnTimeout;
     private final long firstTurnTimeout;
+    private final long startupTimeout;
+    private final int stallRounds;
     private final int sheetsPerPlayer;
     private final int logging;
     private final int turnInfo;
 
     private final Map<Player, ActionResult> lastResults;
 
-    private boolean randomSpawn = false;
-    private final Map<Integer, StringBuilder> playerLogs = new HashMap<>();
-    private final ByteArrayOutputStream outputCapture = new ByteArrayOutputStream();
-    private final ByteArrayOutputStream errorCapture = new ByteArrayOutputStream();
-    private final StringBuilder protocolCapture = new StringBuilder();
-    private final PrintStream originalOut = System.out;
-    private final PrintStream originalErr = System.err;
-    private final List<GameState> gameHistory = new ArrayList<>();
-    private final Map<Integer, PlayerLog> currentTurnLogs = new HashMap<>();
-
+    private final MatchLogData matchLog = new MatchLogData();
+    private final PrintStream out;
+    private final EngineLog log; // null when not reporting
+    private final boolean debug;
+    private final List<GameListener> listeners = new ArrayList<>();
+    private final ResourceMetrics resourceMetrics; // null when not reporting
+
+    /**
+     * Create an engine for JAR players. A path of the form {@code bot:<class name>} loads an
+     * in-process {@link Bot} instead.
+     */
     public GameEngine(Maze maze, List<String> jarPaths, GameConfig config) {
+        this(config, maze, jarPaths, connectionFactories(jarPaths, config));
+    }
+
+    /**
+     * Create an engine that runs entirely in-process with the given bots, without any text protocol
+     */
+    public static GameEngine withBots(Maze maze, List<? extends Bot> bots, GameConfig config) {
+        List<String> labels = new ArrayList<>();
+        List<PlayerConnection.Factory> factories = new ArrayList<>();
+        for (Bot bot : bots) {
+            labels.add(BotConnection.PREFIX + bot.getClass().getName());
+            factories.add(playerId -> new BotConnection(bot));
+        }
+        return withConnections(maze, labels, factories, config);
+    }
+
+    /**
+     * Create an engine whose players are opened by the given factories, e.g. benchmark stand-ins
+     *
+     * @param labels player names recorded in the match log
+     */
+    public static GameEngine withConnections(Maze maze, List<String> labels, List<PlayerConnection.Factory> factories,
+            GameConfig config) {
+        return new GameEngine(config, maze, labels, factories);
+    }
+
+    private GameEngine(GameConfig config, Maze maze, List<String> playerPaths,
+            List<PlayerConnection.Factory> factories) {
         this.maze = maze;
         this.leagueLevel = config.leagueLevel;
         this.maxTurns = config.maxTurns;
         this.turnTimeout = config.turnTimeoutMs;
         this.firstTurnTimeout = config.firstTurnTimeoutMs;
+        this.startupTimeout = config.startupTimeoutMs;
+        this.stallRounds = config.stallRounds;
         this.sheetsPerPlayer = config.sheetsPerPlayer;
         this.logging = config.logging;
         this.turnInfo = config.turnInfo;
+        this.out = config.out;
+        this.debug = config.debug == 1;
+        if (config.report) {
+            this.log = new EngineLog(out, config.err, turnInfo == 1 ? EngineLog.Level.TURN : EngineLog.Level.INFO);
+            listeners.add(new ConsoleReporter(log, logging == 1));
+            this.resourceMetrics = new ResourceMetrics(out);
+            listeners.add(resourceMetrics);
+        } else {
+            this.log = null;
+            this.resourceMetrics = null;
+        }
 
-        this.players = new ArrayList<>();
-        this.playerProcesses = new HashMap<>();
+        this.connections = new HashMap<>();
         this.lastResults = new HashMap<>();
 
-        initializePlayers(jarPaths);
-        maze.applyLevelRestrictions(leagueLevel);
-
-        assignForms();
-        maze.removeUnusedPlayerCells(players);
-        maze.updateFinishCells(players);
-        this.referee = new Referee(maze, players, leagueLevel, config.debug == 1);
-    }
-
-    public void setRandomSpawn(boolean randomSpawn) {
-        this.randomSpawn = randomSpawn;
-    }
-
-    private void initializePlayers(List<String> jarPaths) {
-        List<int[]> validStarts = new ArrayList<>();
-        if (randomSpawn) {
-            for (int y = 0; y < maze.getHeight(); y++) {
-                for (int x = 0; x < maze.getWidth(); x++) {
-                    Cell cell = maze.getCell(x, y);
-                    if (cell instanceof net.simplehardware.engine.cells.FloorCell) {
-                        validStarts.add(new int[] { x, y });
-                    }
-                }
+        try {
+            long seed = config.seed != null ? config.seed : new Random().nextLong();
+            matchLog.seed = seed;
+            matchLog.leagueLevel = leagueLevel;
+            matchLog.maxTurns = maxTurns;
+            matchLog.sheetsPerPlayer = sheetsPerPlayer;
+            matchLog.randomSpawn = config.randomSpawn;
+            matchLog.stallRounds = config.stallRounds;
+            matchLog.players.addAll(playerPaths);
+
+            this.players = MatchSetup.createPlayers(maze, factories.size(), sheetsPerPlayer, config.randomSpawn,
+                    new Random(seed), config.err);
+            this.oracle = MatchSetup.prepareMaze(maze, players, leagueLevel, config.validateMaze, out);
+            initializePlayers(factories, config);
+            this.referee = new Referee(maze, players, leagueLevel, config.stallRounds, debug ? out : null);
+        } catch (RuntimeException | Error e) {
+            // The match never runs, so runGame will not stop the players or the log's printer thread
+            connections.values().forEach(PlayerConnection::destroy);
+            if (log != null) {
+                log.close();
             }
-            Collections.shuffle(validStarts);
+            throw e;
         }
+    }
 
-        for (int i = 0; i < jarPaths.size(); i++) {
-            int playerId = i + 1;
-            int[] startPos;
-
-            if (randomSpawn && i < validStarts.size()) {
-                startPos = validStarts.get(i);
-                maze.setStartPosition(playerId, startPos[0], startPos[1]);
+    private static List<PlayerConnection.Factory> connectionFactories(List<String> playerPaths, GameConfig config) {
+        List<PlayerConnection.Factory> factories = new ArrayList<>();
+        for (String path : playerPaths) {
+            if (path.startsWith(BotConnection.PREFIX)) {
+                factories.add(playerId -> BotConnection.load(path));
             } else {
-                startPos = maze.getStartPosition(playerId);
+                factories.add(playerId -> new ProcessConnection(playerId, path, config));
             }
+        }
+        return factories;
+    }
 
-            if (startPos == null) {
-                System.err.println("No start position found for player " + playerId);
-                continue;
+    private void initializePlayers(List<PlayerConnection.Factory> factories, GameConfig config) {
+        // Player JVMs start side by side rather than one after the other
+        Map<Player, Future<PlayerConnection>> opening = new LinkedHashMap<>();
+        try (ExecutorService starter = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Player player : players) {
+                PlayerConnection.Factory factory = factories.get(player.getId() - 1);
+                opening.put(player, starter.submit(() -> factory.open(player.getId())));
             }
+        }
 
-            Player player = new Player(playerId, startPos[0], startPos[1], sheetsPerPlayer);
-            players.add(player);
-
-            try {
-                PlayerProcess process = new PlayerProcess(playerId, jarPaths.get(i));
-                playerProcesses.put(player, process);
+        Throwable unexpected = null;
+        for (Map.Entry<Player, Future<PlayerConnection>> entry : opening.entrySet()) {
+            Player player = entry.getKey();
+            Future<PlayerConnection> connection = entry.getValue();
+            if (connection.state() == Future.State.SUCCESS) {
+                connections.put(player, connection.resultNow());
                 lastResults.put(player, ActionResult.ok(""));
-                playerLogs.put(playerId, new StringBuilder());
-            } catch (IOException e) {
-                System.err.println("Failed to start player " + playerId + ": " + e.getMessage());
+            } else if (connection.exceptionNow() instanceof IOException e) {
+                config.err.println("Failed to start player " + player.getId() + ": " + e.getMessage());
                 player.setActive(false);
+                matchLog.failedPlayers.add(player.getId());
+            } else if (unexpected == null) {
+                unexpected = connection.exceptionNow();
             }
         }
-    }
-
-    private void assignForms() {
-        for (Player player : players) {
-            for (int y = 0; y < maze.getHeight(); y++) {
-                for (int x = 0; x < maze.getWidth(); x++) {
-                    Cell cell = maze.getCell(x, y);
-                    if (cell instanceof net.simplehardware.engine.cells.FloorCell floor) {
-                        if (floor.getForm() != null && floor.getFormOwner() == player.getId()) {
-                            char form = floor.getForm();
-                            if (!player.getAssignedForms().contains(form)) {
-                                player.addAssignedForm(form);
-                            }
-                        }
-                    }
-                }
+        if (unexpected != null) {
+            connections.values().forEach(PlayerConnection::destroy);
+            if (unexpected instanceof Error error) {
+                throw error;
             }
-            player.getAssignedForms().sort(Character::compareTo);
+            throw (RuntimeException) unexpected;
         }
     }
 
     public void initialize() {
-        System.out.println("=== Game Initialization ===");
-        System.out.println("Maze: " + maze.getName());
-        System.out.println("Players: " + players.size());
-        System.out.println("League Level: " + leagueLevel);
-        System.out.println("Max Turns: " + maxTurns);
+        out.println("=== Game Initialization ===");
+        out.println("Maze: " + maze.getName());
+        out.println("Players: " + players.size());
+        out.println("League Level: " + leagueLevel);
+        out.println("Max Turns: " + maxTurns);
 
+        boolean sampling = listeners.stream().anyMatch(GameListener::wantsResourceStats);
         for (Player player : players) {
             if (!player.isActive())
                 continue;
 
-            PlayerProcess process = playerProcesses.get(player);
-            // MAZE_WIDTH MAZE_HEIGHT LEAGUE_LEVEL
-            process.sendLine(maze.getWidth() + " " + maze.getHeight() + " " + leagueLevel);
-
-            // PLAYER_ID START_X START_Y SHEETS_PER_PLAYER (Level 5+)
-            String line2 = player.getId() + " " + player.getStartX() + " " + player.getStartY();
-            if (leagueLevel >= 5) {
-                line2 += " " + sheetsPerPlayer;
-            }
-            process.sendLine(line2);
+            connections.get(player).setResourceSampling(sampling);
+            connections.get(player).start(new StartInfo(maze.getWidth(), maze.getHeight(), leagueLevel,
+                    player.getId(), player.getStartX(), player.getStartY(), sheetsPerPlayer));
 
-            System.out.println("Player " + player.getId() + " initialized at (" +
+            out.println("Player " + player.getId() + " initialized at (" +
                     player.getStartX() + "," + player.getStartY() + ")");
         }
     }
 
     public void runGame() {
-        try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        awaitPlayersReady();
 
-        System.out.println("\n=== Starting Game ===\n");
-        System.out.println(
+        out.println("\n=== Starting Game ===\n");
+        out.println(
                 "DEBUG: Entering game loop. MaxTurns: " + maxTurns + ", CurrentTurn: " + referee.getCurrentTurn());
 
 
-        while (!referee.isGameOver(maxTurns)) {
-            System.out.println("DEBUG: Running turn " + (referee.getCurrentTurn() + 1));
+        try {
+            for (GameListener listener : listeners) {
+                listener.gameStarted(maze, players, referee);
+            }
+            while (!referee.isGameOver(maxTurns)) {
+                if (log != null) {
+                    log.log(EngineLog.Level.INFO, EngineLog.Kind.ROUND, 0, referee.getCurrentTurn() + 1, null);
+                }
+                runTurn();
+            }
+            if (log != null) {
+                log.flush();
+            }
+            if (referee.isStalled()) {
+                out.println("\nGame state repeated for " + stallRounds + " rounds, ending the match at turn "
+                        + referee.getCurrentTurn());
+            }
+            out.println("\n=== Game Over ===");
+            printFinalResults(players, referee, oracle, out);
+            for (GameListener listener : listeners) {
+                listener.gameEnded(players);
+            }
+        } finally {
+            if (log != null) {
+                log.close();
+            }
+            for (PlayerConnection connection : connections.values()) {
+                connection.destroy();
+            }
+        }
+    }
+
+    /**
+     * Wait for the players that report readiness, all within one startup timeout. A player that is not
+     * ready in time is out, as if its JVM had failed to start.
+     */
+    private void awaitPlayersReady() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(startupTimeout);
+        for (Player player : players) {
+            if (!player.isActive())
+                continue;
 
-            captureGameState();
-            runTurn();
-            referee.updateTurn();
+            long remaining = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            if (!connections.get(player).awaitReady(remaining)) {
+                notice(EngineLog.Level.WARN, EngineLog.Kind.NOT_READY, player.getId(), startupTimeout, null);
+                player.setActive(false);
+                matchLog.failedPlayers.add(player.getId());
+            }
         }
-        captureGameState();
-        System.out.println("\n=== Game Over ===");
-        printFinalResults();
-        for (PlayerProcess process : playerProcesses.values()) {
-            process.destroy();
+        if (log != null) {
+            log.flush();
+        }
+    }
+
+    /**
+     * Report an event through the log, or print it straight away when the engine has none
+     */
+    private void notice(EngineLog.Level level, EngineLog.Kind kind, int player, long value, Object arg) {
+        if (log != null) {
+            log.log(level, kind, player, value, arg);
+        } else {
+            out.println(EngineLog.format(kind, player, value, arg));
         }
     }
 
     private void runTurn() {
         int turn = referee.getCurrentTurn();
-        outputCapture.reset();
-        errorCapture.reset();
-        protocolCapture.setLength(0);
-        System.setOut(new PrintStream(outputCapture));
-        System.setErr(new PrintStream(errorCapture));
-
-        if (turnInfo == 1)
-            System.out.println("--- Turn " + turn + " ---");
+        int playedTurn = turn;
+        for (GameListener listener : listeners) {
+            listener.turnStarted(playedTurn);
+        }
 
         for (Player player : players) {
             if (!player.isActive())
                 continue;
 
-            PlayerProcess process = playerProcesses.get(player);
-
-            protocolCapture.append("=== Player ").append(player.getId()).append(" ===\n");
+            PlayerConnection connection = connections.get(player);
+            player.countTurn();
+            TurnInfo turnData = buildTurnData(player);
+            for (GameListener listener : listeners) {
+                listener.payloadSent(player, turnData);
+            }
 
-            // Send turn data (6 lines)
-            sendTurnData(player, process);
-            protocolCapture.append("\n");
+            long timeout = (turn == 1 || turn == 2) ? firstTurnTimeout : turnTimeout;
+            String action;
             try {
-                long timeout = (turn == 1 || turn == 2) ? firstTurnTimeout : turnTimeout;
-
-                List<String> outputs = new ArrayList<>();
-                String firstLine = process.readLine(timeout);
-                turn = referee.getCurrentTurn()+1;
-
-                if (firstLine == null || firstLine.trim().isEmpty() && turnInfo == 1) {
-                    System.out.println("Player " + player.getId() + ": <no action>");
-                    lastResults.put(player, ActionResult.fail("INVALID"));
-                    continue;
-                }
-
-                outputs.add(firstLine);
-
-                try {
-                    while (process.hasMoreOutput()) {
-                        String extraLine = process.readLineNonBlocking();
-                        if (extraLine != null && !extraLine.trim().isEmpty()) {
-                            outputs.add(extraLine);
-                        } else {
-                            break;
-                        }
-                    }
-                } catch (IOException ignored) {
-                }
-
-                String action = outputs.getLast();
-                if (action.startsWith("Listening ") && outputs.size() > 1) {
-                    action = outputs.getLast();
-                }
-                if (outputs.size() > 1) {
-                    System.out.println("Player " + player.getId() + " output " + outputs.size() + " lines, using: " + action);
-                }
-
-                if (turnInfo == 1) System.out.println("Player " + player.getId() + ": " + action);
-
-                ActionResult result = referee.processAction(player, action);
-                lastResults.put(player, result);
-
-                logToPlayer(player.getId(), action);
-
-                if (turnInfo == 1)
-                    System.out.println("  Result: " + result);
-
+                action = connection.requestAction(turnData, timeout);
             } catch (TimeoutException e) {
-                System.out.println("Player " + player.getId() + ": TIMEOUT");
+                fireActionReceived(player, connection, null, true);
                 player.setTimedOut(true);
                 player.setActive(false);
                 lastResults.put(player, ActionResult.fail("TIMEOUT"));
+                matchLog.actions.add(logEntry(player, connection, null, true));
+                continue;
             }
-        }
+            turn = referee.getCurrentTurn()+1;
+            if (connection.getLastSkippedLines() > 0) {
+                notice(EngineLog.Level.INFO, EngineLog.Kind.EXTRA_LINES, player.getId(),
+                        connection.getLastSkippedLines() + 1, action);
+            }
+            fireActionReceived(player, connection, action, false);
 
-        if (turnInfo == 1)
-            System.out.println();
+            if (action == null || action.trim().isEmpty() && turnInfo == 1) {
+                lastResults.put(player, ActionResult.fail("INVALID"));
+                matchLog.actions.add(logEntry(player, connection, null, false));
+                continue;
+            }
 
-        StringBuilder playerStdoutAll = new StringBuilder();
-        StringBuilder playerStderrAll = new StringBuilder();
-        for (Player player : players) {
-            PlayerProcess process = playerProcesses.get(player);
-            String stdout = process.getStdout();
-            String stderr = process.getStderr();
-
-            currentTurnLogs.put(player.getId(), new PlayerLog(stdout, stderr));
-            if (!stdout.isEmpty()) {
-                playerStdoutAll.append("=== Player ").append(player.getId()).append(" stdout ===\n");
-                playerStdoutAll.append(stdout);
+            matchLog.actions.add(logEntry(player, connection, action, false));
+            ActionResult result = referee.processAction(player, action);
+            lastResults.put(player, result);
+            for (GameListener listener : listeners) {
+                listener.actionResolved(player, action, result);
             }
-            if (!stderr.isEmpty()) {
-                playerStderrAll.append("=== Player ").append(player.getId()).append(" stderr ===\n");
-                playerStderrAll.append(stderr);
+        }
+
+        // Always drained, so player output does not pile up across turns
+        Map<Integer, PlayerLog> logs = new HashMap<>();
+        for (Player player : players) {
+            PlayerConnection connection = connections.get(player);
+            if (connection != null) {
+                logs.put(player.getId(), connection.takeLog());
             }
-            process.resetIO();
         }
 
-        String gameLog = outputCapture.toString();
-        String playerStderr = playerStderrAll.toString();
-        System.setOut(originalOut);
-        System.setErr(originalErr);
+        if (debug && log != null) {
+            log.flush(); // The referee prints collisions directly
+        }
+        referee.updateTurn();
+        for (GameListener listener : listeners) {
+            listener.turnEnded(playedTurn, logs);
+        }
+    }
 
-        System.out.print(gameLog);
-        if (!playerStderr.isEmpty() && logging == 1) {
-            System.err.print(playerStderr);
+    private void fireActionReceived(Player player, PlayerConnection connection, String action, boolean timeout) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        TurnStats stats = connection.getLastTurnStats();
+        for (GameListener listener : listeners) {
+            listener.actionReceived(player, action, timeout, stats);
         }
     }
 
-    private void sendTurnData(Player player, PlayerProcess process) {
-        ActionResult lastResult = lastResults.get(player);
-        String line1 = lastResult.toString();
-        process.sendLine(line1);
-        protocolCapture.append(line1).append("\n");
-        logToPlayer(player.getId(), line1);
-
-        String currentCell = maze.getCellInfo(player.getX(), player.getY(), players, player, null, leagueLevel);
-        process.sendLine(currentCell);
-        protocolCapture.append(currentCell).append("\n");
-        logToPlayer(player.getId(), currentCell);
-
-        for (Direction dir : Direction.values()) {
-            int nx = player.getX() + dir.getDx();
-            int ny = player.getY() + dir.getDy();
-            String cellInfo = maze.getCellInfo(nx, ny, players, player, dir, leagueLevel);
-            process.sendLine(cellInfo);
-            protocolCapture.append(cellInfo).append("\n");
-            logToPlayer(player.getId(), cellInfo);
+    private static MatchLogData.ActionLogEntry logEntry(Player player, PlayerConnection connection, String action,
+            boolean timeout) {
+        MatchLogData.ActionLogEntry entry = new MatchLogData.ActionLogEntry(player.getId(), action, timeout);
+        TurnStats stats = connection.getLastTurnStats();
+        if (stats != null) {
+            entry.wallMicros = stats.wallNanos() / 1000;
+            entry.cpuMicros = stats.cpuNanos() < 0 ? null : stats.cpuNanos() / 1000;
+            entry.rssKb = stats.rssBytes() < 0 ? null : stats.rssBytes() / 1024;
         }
+        return entry;
     }
 
-    private void printFinalResults() {
-        System.out.println("Final Scores:");
+    /**
+     * Resource totals per JAR player, empty unless the engine reports
+     */
+    public Map<Integer, ResourceUsage> getResourceUsage() {
+        return resourceMetrics != null ? resourceMetrics.getUsage() : Map.of();
+    }
+
+    /**
+     * Observe the match; register before {@link #initialize}
+     */
+    public void addListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    private TurnInfo buildTurnData(Player player) {
+        int x = player.getX();
+        int y = player.getY();
+        Occupancy occupancy = referee.getOccupancy();
+        return new TurnInfo(referee.getCurrentTurn(), lastResults.get(player),
+                maze.getCellView(x, y, occupancy, player, null, leagueLevel),
+                maze.getCellView(x, y - 1, occupancy, player, Direction.NORTH, leagueLevel),
+                maze.getCellView(x + 1, y, occupancy, player, Direction.EAST, leagueLevel),
+                maze.getCellView(x, y + 1, occupancy, player, Direction.SOUTH, leagueLevel),
+                maze.getCellView(x - 1, y, occupancy, player, Direction.WEST, leagueLevel));
+    }
+
+    static void printFinalResults(List<Player> players, Referee referee, MazeOracle oracle, PrintStream out) {
+        out.println("Final Scores:");
 
         long activePlayers = players.stream().filter(Player::isActive).count();
         if (activePlayers == 1) {
             Player lastStanding = players.stream().filter(Player::isActive).findFirst().orElse(null);
             if (lastStanding != null) {
-                System.out.println("Last Player Standing Bonus: " + lastStanding.getId() + " (+20 points)");
+                out.println("Last Player Standing Bonus: " + lastStanding.getId() + " (+20 points)");
                 lastStanding.addScore(20);
             }
         }
@@ -340,55 +415,68 @@ public class GameEngine {
 
         for (int i = 0; i < sortedPlayers.size(); i++) {
             Player p = sortedPlayers.get(i);
-            String status = p.isFinished() ? "FINISHED"
-                    : p.isTimedOut() ? "TIMEOUT" : !p.isActive() ? "INACTIVE" : "ACTIVE";
-            System.out.println((i + 1) + ". Player " + p.getId() + ": " +
+            String status = statusOf(p);
+            out.println((i + 1) + ". Player " + p.getId() + ": " +
                     p.getScore() + " points (" + status + ") - Forms: " +
-                    p.getCollectedForms().size() + "/" + p.getAssignedForms().size());
+                    p.getCollectedForms().size() + "/" + p.getAssignedForms().size() + " - " +
+                    describeEfficiency(p, oracle));
 
         }
 
         Player winner = referee.getWinner();
         if (winner != null) {
-            System.out.println("\nWinner: Player " + winner.getId() + " with " +
+            out.println("\nWinner: Player " + winner.getId() + " with " +
                     winner.getScore() + " points!");
         }
-        System.out.println("Total Turns: " + referee.getCurrentTurn());
+        out.println("Total Turns: " + referee.getCurrentTurn());
     }
 
-    private void logToPlayer(int playerId, String line) {
-        StringBuilder log = playerLogs.get(playerId);
-        if (log != null) {
-            log.append(line).append("\n");
-        }
+    private static String statusOf(Player p) {
+        return p.isFinished() ? "FINISHED" : p.isTimedOut() ? "TIMEOUT" : !p.isActive() ? "INACTIVE" : "ACTIVE";
     }
 
-    private void captureGameState() {
-        Cell[][] cellGrid = new Cell[maze.getWidth()][maze.getHeight()];
-        for (int x = 0; x < maze.getWidth(); x++) {
-            for (int y = 0; y < maze.getHeight(); y++) {
-                cellGrid[x][y] = maze.getCell(x, y);
-            }
+    private static String describeEfficiency(Player player, MazeOracle oracle) {
+        int optimal = oracle.optimalActions(player);
+        String path = "Turns: " + player.getTurnsTaken() + " (optimal " + optimal + ")";
+        if (player.isFinished() && player.getTurnsTaken() > 0) {
+            path += String.format(" - Efficiency: %.0f%%", 100.0 * optimal / player.getTurnsTaken());
         }
+        return path;
+    }
 
-        GameState state = new GameState(
-                referee.getCurrentTurn(),
-                maze.getWidth(),
-                maze.getHeight(),
-                players,
-                cellGrid,
-                new HashMap<>(currentTurnLogs));
-
-        gameHistory.add(state);
-        currentTurnLogs.clear();
+    public Maze getMaze() {
+        return maze;
     }
 
-    public List<GameState> getGameHistory() {
-        return new ArrayList<>(gameHistory);
+    /**
+     * Scores and status of every player; call after {@link #runGame}
+     */
+    public MatchResultData getResult() {
+        MatchResultData result = new MatchResultData();
+        result.mazeFile = matchLog.mazeFile;
+        result.seed = matchLog.seed;
+        result.totalTurns = referee.getCurrentTurn();
+        Player winner = referee.getWinner();
+        result.winner = winner != null ? winner.getId() : null;
+        for (Player player : players) {
+            MatchResultData.PlayerResult entry = new MatchResultData.PlayerResult();
+            entry.id = player.getId();
+            entry.bot = matchLog.players.get(player.getId() - 1);
+            entry.score = player.getScore();
+            entry.status = statusOf(player);
+            entry.forms = player.getCollectedForms().size();
+            entry.requiredForms = player.getAssignedForms().size();
+            entry.turns = player.getTurnsTaken();
+            result.players.add(entry);
+        }
+        return result;
     }
 
-    public Maze getMaze() {
-        return maze;
+    /**
+     * Seed and action sequence of this match, suitable for {@link MatchReplayer}
+     */
+    public MatchLogData getMatchLog() {
+        return matchLog;
     }
 
     public static class GameConfig {
@@ -399,6 +487,38 @@ public class GameEngine {
         public int logging = 1;
         public long turnTimeoutMs = 100;
         public long firstTurnTimeoutMs = 1000;
+        public long timeBankMs = 0; // extra time per match a player may spend over its turn timeouts
+        public long startupTimeoutMs = 5000; // for JAR players to report ready, or extra on their first turn
         public int sheetsPerPlayer = 2;
+        public int stallRounds = 0; // end the match after this many rounds repeating recent states, 0 never
+        public boolean randomSpawn = false;
+        public Long seed = null; // null picks a fresh seed per match
+        public boolean validateMaze = true;
+        public LaunchProfiles launchProfiles = LaunchProfiles.DEFAULT;
+        public boolean cpuTimeouts = false; // judge JAR players by CPU time instead of wall time
+        public PrintStream out = System.out; // engine report; engines running side by side need their own
+        public PrintStream err = System.err;
+        public int outputCaptureBytes = PlayerProcess.DEFAULT_CAPTURE_LIMIT; // per player, stream and turn
+        public Path logSegmentDir = null; // keep player output in segment files here instead of in memory
+        public boolean report = true; // print actions, timeouts and resource usage; off for batch runs
+
+        /**
+         * Settings of a submitted match; reporting stays at the defaults
+         */
+        public static GameConfig of(MatchSpecData spec) {
+            GameConfig config = new GameConfig();
+            config.leagueLevel = spec.leagueLevel;
+            config.maxTurns = spec.maxTurns * spec.players.size();
+            config.turnTimeoutMs = spec.turnTimeoutMs;
+            config.firstTurnTimeoutMs = spec.firstTurnTimeoutMs;
+            config.timeBankMs = spec.timeBankMs;
+            config.startupTimeoutMs = spec.startupTimeoutMs;
+            config.cpuTimeouts = spec.cpuTimeouts;
+            config.sheetsPerPlayer = spec.sheetsPerPlayer;
+            config.stallRounds = spec.stallRounds;
+            config.randomSpawn = spec.randomSpawn;
+            config.seed = spec.seed;
+            return config;
+        }
     }
 }
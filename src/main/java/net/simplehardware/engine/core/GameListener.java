@@ -0,0 +1,70 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.game.ActionResult;
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.players.Player;
+import net.simplehardware.engine.players.TurnInfo;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Observer of a running match, registered with {@link GameEngine#addListener}. Every method is
+ * called on the engine thread and does nothing by default, so a match pays only for the listeners
+ * it has.
+ */
+public interface GameListener {
+
+    /**
+     * Players are placed and connected; the first turn is next
+     */
+    default void gameStarted(Maze maze, List<Player> players, Referee referee) {
+    }
+
+    default void turnStarted(int turn) {
+    }
+
+    /**
+     * The turn data is about to be handed to a player
+     */
+    default void payloadSent(Player player, TurnInfo turn) {
+    }
+
+    /**
+     * A player answered or ran out of time
+     *
+     * @param action the answer, null if there was none
+     * @param stats  resources used for the answer, null for in-process bots
+     */
+    default void actionReceived(Player player, String action, boolean timeout, TurnStats stats) {
+    }
+
+    /**
+     * Whether {@link #actionReceived} needs the CPU time and memory of JAR players. They are sampled from
+     * the process every turn only if a registered listener needs them; wall-clock time is always there.
+     */
+    default boolean wantsResourceStats() {
+        return false;
+    }
+
+    /**
+     * The referee applied a player's action
+     */
+    default void actionResolved(Player player, String action, ActionResult result) {
+    }
+
+    /**
+     * Every player has acted and the referee has moved on to the next turn
+     *
+     * @param logs output each player produced during the turn
+     */
+    default void turnEnded(int turn, Map<Integer, PlayerLog> logs) {
+    }
+
+    /**
+     * Final scores are settled
+     */
+    default void gameEnded(List<Player> players) {
+    }
+}
@@ -0,0 +1,67 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.cells.Cell;
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.players.Player;
+import net.simplehardware.engine.viewer.elements.GameState;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a {@link GameState} of the start and of every turn, for the viewer
+ */
+public class HistoryRecorder implements GameListener {
+    private final List<GameState> history = new ArrayList<>();
+    private final List<Consumer<GameState>> spectators = new ArrayList<>();
+    private Maze maze;
+    private List<Player> players;
+    private Referee referee;
+
+    /**
+     * Receive every state as soon as it is captured. Called on the engine thread, so spectators must
+     * hand the state off rather than do work.
+     */
+    public void addSpectator(Consumer<GameState> spectator) {
+        spectators.add(spectator);
+    }
+
+    public List<GameState> getHistory() {
+        return new ArrayList<>(history);
+    }
+
+    @Override
+    public void gameStarted(Maze maze, List<Player> players, Referee referee) {
+        this.maze = maze;
+        this.players = players;
+        this.referee = referee;
+        capture(Map.of());
+    }
+
+    @Override
+    public void turnEnded(int turn, Map<Integer, PlayerLog> logs) {
+        capture(logs);
+    }
+
+    private void capture(Map<Integer, PlayerLog> logs) {
+        GameState state = snapshot(maze, players, referee, logs);
+        history.add(state);
+        for (Consumer<GameState> spectator : spectators) {
+            spectator.accept(state);
+        }
+    }
+
+    static GameState snapshot(Maze maze, List<Player> players, Referee referee, Map<Integer, PlayerLog> logs) {
+        Cell[][] cellGrid = new Cell[maze.getWidth()][maze.getHeight()];
+        for (int x = 0; x < maze.getWidth(); x++) {
+            for (int y = 0; y < maze.getHeight(); y++) {
+                cellGrid[x][y] = maze.peekCell(x, y);
+            }
+        }
+        return new GameState(referee.getCurrentTurn(), maze.getWidth(), maze.getHeight(), referee.getStateHash(),
+                players, cellGrid, logs);
+    }
+}
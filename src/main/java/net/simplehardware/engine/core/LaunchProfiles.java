@@ -0,0 +1,204 @@
+package net.simplehardware.engine.core;
+
+import com.google.gson.Gson;
+import net.simplehardware.models.LaunchProfileData;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the command line for player JVMs from launch profiles.
+ * <p>
+ * With AppCDS enabled, the first launch of a JAR is a training run that dumps its loaded classes
+ * into a dynamic archive when the JVM exits; later launches map that archive instead of loading and
+ * verifying the classes again. Archives are keyed by the SHA-256 of the JAR and the Java command
+ * together with the {@code -version} output of the JVM it launches.
+ */
+public class LaunchProfiles {
+    public static final LaunchProfiles DEFAULT = new LaunchProfiles(new LaunchProfileData());
+
+    private static final Map<String, String> JAR_HASHES = new ConcurrentHashMap<>();
+    private static final Map<String, String> JVM_VERSIONS = new ConcurrentHashMap<>();
+
+    private final LaunchProfileData data;
+
+    public LaunchProfiles(LaunchProfileData data) {
+        this.data = data;
+    }
+
+    public static LaunchProfiles load(String path) throws IOException {
+        try (FileReader reader = new FileReader(path)) {
+            LaunchProfileData data = new Gson().fromJson(reader, LaunchProfileData.class);
+            if (data == null) {
+                throw new IOException("Empty launch profiles file " + path);
+            }
+            return new LaunchProfiles(data);
+        }
+    }
+
+    /**
+     * A prepared launch. If {@code trainingArchive} is set, this run writes the archive and
+     * {@link #publishArchive} must be called once the process has exited.
+     *
+     * @param readySignal the bot prints {@code READY} once it has read the start lines
+     */
+    public record Launch(List<String> command, Path trainingArchive, Path archive, boolean readySignal) {
+
+        /**
+         * @throws IOException if the archive could not be stored; later launches just train again
+         */
+        public void publishArchive() throws IOException {
+            if (trainingArchive == null) {
+                return;
+            }
+            try {
+                if (Files.isRegularFile(trainingArchive) && Files.size(trainingArchive) > 0) {
+                    // Concurrent training runs of the same JAR just replace each other's archive
+                    Files.move(trainingArchive, archive, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } else {
+                    Files.deleteIfExists(trainingArchive);
+                }
+            } catch (IOException e) {
+                try {
+                    Files.deleteIfExists(trainingArchive);
+                } catch (IOException ignored) {
+                }
+                throw new IOException("Could not store CDS archive " + archive + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public Launch prepare(String jarPath) throws IOException {
+        LaunchProfileData.Profile bot = data.bots.get(jarPath);
+        if (bot == null) {
+            bot = data.bots.get(Path.of(jarPath).getFileName().toString());
+        }
+        LaunchProfileData.Profile defaults = data.defaults != null ? data.defaults : new LaunchProfileData.Profile();
+
+        String java = pick(bot, defaults, p -> p.javaCommand, "java");
+        List<String> command = new ArrayList<>();
+        command.add(java);
+
+        String initialHeap = pick(bot, defaults, p -> p.initialHeap, null);
+        if (initialHeap != null) {
+            command.add("-Xms" + initialHeap);
+        }
+        String maxHeap = pick(bot, defaults, p -> p.maxHeap, null);
+        if (maxHeap != null) {
+            command.add("-Xmx" + maxHeap);
+        }
+        String gc = pick(bot, defaults, p -> p.gc, null);
+        if (gc != null) {
+            command.add("-XX:+Use" + gc + "GC");
+        }
+        Integer tieredStopAtLevel = pick(bot, defaults, p -> p.tieredStopAtLevel, null);
+        if (tieredStopAtLevel != null) {
+            command.add("-XX:TieredStopAtLevel=" + tieredStopAtLevel);
+        }
+        if (defaults.jvmArgs != null) {
+            command.addAll(defaults.jvmArgs);
+        }
+        if (bot != null && bot.jvmArgs != null) {
+            command.addAll(bot.jvmArgs);
+        }
+
+        Path training = null;
+        Path archive = null;
+        if (pick(bot, defaults, p -> p.appCds, false)) {
+            Path cacheDir = Path.of(data.cdsCacheDir != null ? data.cdsCacheDir : ".cds-cache");
+            Files.createDirectories(cacheDir);
+            archive = cacheDir.resolve(archiveKey(jarPath, java) + ".jsa");
+            // JVM warnings, e.g. about a stale archive, must not end up in the protocol on stdout
+            command.add("-Xlog:disable");
+            command.add("-Xlog:all=warning:stderr");
+            if (Files.isRegularFile(archive)) {
+                command.add("-XX:SharedArchiveFile=" + archive);
+            } else {
+                training = cacheDir.resolve(archive.getFileName() + "." + UUID.randomUUID() + ".tmp");
+                command.add("-XX:ArchiveClassesAtExit=" + training);
+            }
+        }
+
+        command.add("-jar");
+        command.add(jarPath);
+        return new Launch(command, training, archive, pick(bot, defaults, p -> p.readySignal, false));
+    }
+
+    private interface Field<T> {
+        T get(LaunchProfileData.Profile profile);
+    }
+
+    private static <T> T pick(LaunchProfileData.Profile bot, LaunchProfileData.Profile defaults, Field<T> field,
+            T fallback) {
+        if (bot != null && field.get(bot) != null) {
+            return field.get(bot);
+        }
+        return field.get(defaults) != null ? field.get(defaults) : fallback;
+    }
+
+    private static String archiveKey(String jarPath, String java) throws IOException {
+        Path jar = Path.of(jarPath).toAbsolutePath();
+        String stamp = jar + ":" + Files.size(jar) + ":" + Files.getLastModifiedTime(jar).toMillis();
+        String jarHash = JAR_HASHES.get(stamp);
+        if (jarHash == null) {
+            MessageDigest digest = sha256();
+            try (InputStream in = Files.newInputStream(jar)) {
+                byte[] buffer = new byte[1 << 16];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            jarHash = HexFormat.of().formatHex(digest.digest());
+            JAR_HASHES.put(stamp, jarHash);
+        }
+        // Archives only load into the JVM build that wrote them
+        String jvm = java + ":" + jvmVersion(java);
+        return jarHash.substring(0, 32) + "-"
+                + HexFormat.of().formatHex(sha256().digest(jvm.getBytes())).substring(0, 8);
+    }
+
+    /**
+     * What the player JVM reports for {@code -version}, asked once per Java command
+     */
+    private static String jvmVersion(String java) throws IOException {
+        String version = JVM_VERSIONS.get(java);
+        if (version == null) {
+            Process process = new ProcessBuilder(java, "-version").redirectErrorStream(true).start();
+            try (InputStream in = process.getInputStream()) {
+                version = new String(in.readAllBytes()).trim();
+            }
+            try {
+                if (process.waitFor() != 0) {
+                    throw new IOException("'" + java + " -version' failed: " + version);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while asking " + java + " for its version");
+            }
+            JVM_VERSIONS.put(java, version);
+        }
+        return version;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
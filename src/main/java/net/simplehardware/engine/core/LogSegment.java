@@ -0,0 +1,99 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.viewer.elements.LogText;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file holding the output of one player stream for one match. Readers keep
+ * {@link Slice}s, an offset and a length, instead of the text itself.
+ */
+public class LogSegment {
+    private final Path path;
+    private final FileChannel channel;
+    private long size;
+
+    public record Slice(LogSegment segment, long offset, int length) implements LogText {
+        @Override
+        public String load() {
+            return segment.read(offset, length);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return length == 0;
+        }
+    }
+
+    private LogSegment(Path path, OpenOption... options) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, options);
+        this.size = channel.size();
+    }
+
+    /**
+     * New segment file in {@code dir}, removed when the JVM exits
+     */
+    public static LogSegment create(Path dir, String prefix) throws IOException {
+        Path file = Files.createTempFile(dir, prefix + "-", ".log");
+        file.toFile().deleteOnExit();
+        return new LogSegment(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Existing file to read slices from, such as the logs stored in a replay
+     */
+    public static LogSegment open(Path file) throws IOException {
+        return new LogSegment(file, StandardOpenOption.READ);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized void append(byte[] bytes, int offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer, size);
+        }
+    }
+
+    /**
+     * Slice from {@code offset} to the current end
+     */
+    public synchronized Slice sliceFrom(long offset) {
+        return new Slice(this, offset, (int) (size - offset));
+    }
+
+    String read(long offset, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            return "[log unavailable: " + e.getMessage() + "]";
+        }
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
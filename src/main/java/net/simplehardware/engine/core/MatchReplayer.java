@@ -0,0 +1,84 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.game.MazeOracle;
+import net.simplehardware.engine.players.Player;
+import net.simplehardware.models.MatchLogData;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Re-simulates a recorded match through the referee without any player processes.
+ * The maze must be freshly loaded from the same file the match was played on.
+ */
+public class MatchReplayer {
+    private final MatchLogData log;
+    private final List<Player> players;
+    private final Referee referee;
+    private final MazeOracle oracle;
+    private int consumedActions;
+
+    public MatchReplayer(Maze maze, MatchLogData log) {
+        this.log = log;
+        this.players = MatchSetup.createPlayers(maze, log.players.size(), log.sheetsPerPlayer, log.randomSpawn,
+                new Random(log.seed), System.err);
+        for (Player player : players) {
+            if (log.failedPlayers.contains(player.getId())) {
+                player.setActive(false);
+            }
+        }
+        this.oracle = MatchSetup.prepareMaze(maze, players, log.leagueLevel, false, System.out);
+        this.referee = new Referee(maze, players, log.leagueLevel, log.stallRounds, null);
+    }
+
+    /**
+     * Feed the recorded actions to the referee using the same turn order as {@link GameEngine}
+     *
+     * @return false if the log ran out before the game was over
+     */
+    public boolean run() {
+        List<MatchLogData.ActionLogEntry> actions = log.actions;
+        while (!referee.isGameOver(log.maxTurns)) {
+            for (Player player : players) {
+                if (!player.isActive())
+                    continue;
+
+                if (consumedActions >= actions.size()) {
+                    return false;
+                }
+                MatchLogData.ActionLogEntry entry = actions.get(consumedActions++);
+                if (entry.player != player.getId()) {
+                    throw new IllegalStateException("Log diverged at action " + consumedActions + ": expected player "
+                            + player.getId() + " but found player " + entry.player);
+                }
+
+                player.countTurn();
+                if (entry.timeout) {
+                    player.setTimedOut(true);
+                    player.setActive(false);
+                } else if (entry.action != null) {
+                    referee.processAction(player, entry.action);
+                }
+            }
+            referee.updateTurn();
+        }
+        return true;
+    }
+
+    public int getConsumedActions() {
+        return consumedActions;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public Referee getReferee() {
+        return referee;
+    }
+
+    public void printFinalResults() {
+        GameEngine.printFinalResults(players, referee, oracle, System.out);
+    }
+}
@@ -0,0 +1,92 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.cells.FloorCell;
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.game.MazeOracle;
+import net.simplehardware.engine.players.Player;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Match setup shared by the live engine and the re-simulator, so both start from the same state
+ */
+final class MatchSetup {
+
+    private MatchSetup() {
+    }
+
+    /**
+     * Create the players for a match. Players without a start position are skipped.
+     *
+     * @param err receives the players that were skipped
+     */
+    static List<Player> createPlayers(Maze maze, int playerCount, int sheetsPerPlayer, boolean randomSpawn,
+            Random random, PrintStream err) {
+        List<Integer> validStarts = new ArrayList<>();
+        if (randomSpawn) {
+            validStarts = maze.getIndex().getFloorCells();
+            Collections.shuffle(validStarts, random);
+        }
+
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < playerCount; i++) {
+            int playerId = i + 1;
+            int[] startPos;
+
+            if (randomSpawn && i < validStarts.size()) {
+                int cell = validStarts.get(i);
+                startPos = new int[] { cell % maze.getWidth(), cell / maze.getWidth() };
+                maze.setStartPosition(playerId, startPos[0], startPos[1]);
+            } else {
+                startPos = maze.getStartPosition(playerId);
+            }
+
+            if (startPos == null) {
+                err.println("No start position found for player " + playerId);
+                continue;
+            }
+
+            players.add(new Player(playerId, startPos[0], startPos[1], sheetsPerPlayer));
+        }
+        return players;
+    }
+
+    /**
+     * Apply level rules, hand out forms and drop cells of players that are not in the match
+     *
+     * @param validate reject the maze if a player cannot finish it
+     * @param out receives what was removed
+     */
+    static MazeOracle prepareMaze(Maze maze, List<Player> players, int leagueLevel, boolean validate,
+            PrintStream out) {
+        maze.applyLevelRestrictions(leagueLevel, out);
+        assignForms(maze, players);
+        maze.removeUnusedPlayerCells(players, out);
+        maze.updateFinishCells(players);
+
+        MazeOracle oracle = MazeOracle.build(maze, players);
+        if (validate) {
+            oracle.validate(players);
+        }
+        return oracle;
+    }
+
+    private static void assignForms(Maze maze, List<Player> players) {
+        int width = maze.getWidth();
+        for (Player player : players) {
+            for (int cell : maze.getIndex().getFormCells(player.getId())) {
+                if (maze.peekCell(cell % width, cell / width) instanceof FloorCell floor && floor.getForm() != null) {
+                    char form = floor.getForm();
+                    if (!player.getAssignedForms().contains(form)) {
+                        player.addAssignedForm(form);
+                    }
+                }
+            }
+            player.getAssignedForms().sort(Character::compareTo);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.players.Player;
+import net.simplehardware.engine.viewer.HistorySource;
+import net.simplehardware.engine.viewer.elements.CellSnapshot;
+import net.simplehardware.engine.viewer.elements.CellSnapshot.CellType;
+import net.simplehardware.engine.viewer.elements.GameState;
+import net.simplehardware.engine.viewer.elements.LogText;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * History of a match kept in direct memory, so engines holding long histories add no objects for the
+ * garbage collector to trace. Each turn is written in a fixed layout into large direct buffers; a
+ * {@link GameState} only exists while the turn is being read, and player logs are copied out when shown.
+ * <p>
+ * Frame layout: turn, width, height, player count and log count as ints and the state hash; one {@link #PLAYER_BYTES}
+ * record per player; one {@link #CELL_BYTES} record per cell, column by column; one {@link #LOG_BYTES}
+ * record per log followed by the raw stdout and stderr bytes of each. Frames never span two buffers.
+ * <p>
+ * Turns are appended by one thread, the engine's, and may be read from any other without locks: a frame
+ * is written completely before the volatile frame count makes it visible, the frame and chunk tables are
+ * replaced by filled copies when they grow, and readers only use absolute gets.
+ */
+public class OffHeapHistory implements GameListener, HistorySource {
+    private static final int CHUNK_BYTES = 4 << 20;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES + Long.BYTES;
+    private static final int PLAYER_BYTES = 6 * Integer.BYTES + 2;
+    private static final int CELL_BYTES = 2 + Character.BYTES + 2 * Integer.BYTES;
+    private static final int LOG_BYTES = 3 * Integer.BYTES;
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private volatile long[] frames = new long[256]; // chunk index << 32 | offset
+    private volatile int frameCount;
+    private volatile long bytes;
+    private ByteBuffer current; // chunk being written, only touched by the appending thread
+    private Maze maze;
+    private List<Player> players;
+    private Referee referee;
+
+    @Override
+    public void gameStarted(Maze maze, List<Player> players, Referee referee) {
+        this.maze = maze;
+        this.players = players;
+        this.referee = referee;
+        append(HistoryRecorder.snapshot(maze, players, referee, null), Map.of());
+    }
+
+    @Override
+    public void turnEnded(int turn, Map<Integer, PlayerLog> logs) {
+        append(HistoryRecorder.snapshot(maze, players, referee, null), logs);
+    }
+
+    /**
+     * Direct memory taken by the stored turns
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public int size() {
+        return frameCount;
+    }
+
+    public void append(GameState state, Map<Integer, PlayerLog> logs) {
+        List<Map.Entry<Integer, byte[][]>> logBytes = new ArrayList<>();
+        int logLength = 0;
+        for (Map.Entry<Integer, PlayerLog> entry : logs.entrySet()) {
+            byte[] stdout = entry.getValue().stdout().getBytes(StandardCharsets.UTF_8);
+            byte[] stderr = entry.getValue().stderr().getBytes(StandardCharsets.UTF_8);
+            logBytes.add(Map.entry(entry.getKey(), new byte[][] { stdout, stderr }));
+            logLength += LOG_BYTES + stdout.length + stderr.length;
+        }
+        int width = state.getMazeWidth();
+        int height = state.getMazeHeight();
+        int length = HEADER_BYTES + state.getPlayers().size() * PLAYER_BYTES + width * height * CELL_BYTES + logLength;
+
+        ByteBuffer chunk = current;
+        if (chunk == null || chunk.remaining() < length) {
+            chunk = ByteBuffer.allocateDirect(Math.max(CHUNK_BYTES, length));
+            ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[chunks.length] = chunk;
+            chunks = grown;
+            current = chunk;
+            bytes += chunk.capacity();
+        }
+        int count = frameCount;
+        if (count == frames.length) {
+            frames = Arrays.copyOf(frames, count * 2);
+        }
+        frames[count] = (long) (chunks.length - 1) << 32 | chunk.position();
+
+        chunk.putInt(state.getTurnNumber()).putInt(width).putInt(height)
+                .putInt(state.getPlayers().size()).putInt(logBytes.size()).putLong(state.getStateHash());
+        for (GameState.PlayerSnapshot player : state.getPlayers().values()) {
+            chunk.putInt(player.id()).putInt(player.x()).putInt(player.y()).putInt(player.score())
+                    .putInt(player.formsCollected()).putInt(player.formsRequired())
+                    .put((byte) (player.active() ? 1 : 0)).put((byte) (player.finished() ? 1 : 0));
+        }
+        for (CellSnapshot[] column : state.getCells()) {
+            for (CellSnapshot cell : column) {
+                chunk.put((byte) cell.type().ordinal()).put((byte) (cell.hasSheet() ? 1 : 0))
+                        .putChar(cell.form() != null ? cell.form() : 0)
+                        .putInt(cell.formOwner() != null ? cell.formOwner() : NONE)
+                        .putInt(cell.finishPlayerId() != null ? cell.finishPlayerId() : NONE);
+            }
+        }
+        for (Map.Entry<Integer, byte[][]> log : logBytes) {
+            chunk.putInt(log.getKey()).putInt(log.getValue()[0].length).putInt(log.getValue()[1].length);
+        }
+        for (Map.Entry<Integer, byte[][]> log : logBytes) {
+            chunk.put(log.getValue()[0]).put(log.getValue()[1]);
+        }
+        frameCount = count + 1; // publishes the frame
+    }
+
+    @Override
+    public GameState get(int index) {
+        int count = frameCount;
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Turn " + index + " of " + count);
+        }
+        long frame = frames[index];
+        ByteBuffer chunk = chunks[(int) (frame >>> 32)];
+        int at = (int) frame;
+
+        int turn = chunk.getInt(at);
+        int width = chunk.getInt(at + 4);
+        int height = chunk.getInt(at + 8);
+        int playerCount = chunk.getInt(at + 12);
+        int logCount = chunk.getInt(at + 16);
+        long stateHash = chunk.getLong(at + 20);
+        at += HEADER_BYTES;
+
+        Map<Integer, GameState.PlayerSnapshot> players = new HashMap<>();
+        for (int i = 0; i < playerCount; i++, at += PLAYER_BYTES) {
+            GameState.PlayerSnapshot player = new GameState.PlayerSnapshot(chunk.getInt(at), chunk.getInt(at + 4),
+                    chunk.getInt(at + 8), chunk.getInt(at + 12), chunk.getInt(at + 16), chunk.getInt(at + 20),
+                    chunk.get(at + 24) != 0, chunk.get(at + 25) != 0);
+            players.put(player.id(), player);
+        }
+
+        CellType[] types = CellType.values();
+        CellSnapshot[][] cells = new CellSnapshot[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++, at += CELL_BYTES) {
+                char form = chunk.getChar(at + 2);
+                int owner = chunk.getInt(at + 4);
+                int finish = chunk.getInt(at + 8);
+                cells[x][y] = new CellSnapshot(types[chunk.get(at)], x, y, form != 0 ? form : null,
+                        owner != NONE ? owner : null, chunk.get(at + 1) != 0, finish != NONE ? finish : null);
+            }
+        }
+
+        Map<Integer, PlayerLog> logs = new HashMap<>();
+        int text = at + logCount * LOG_BYTES;
+        for (int i = 0; i < logCount; i++, at += LOG_BYTES) {
+            int stdoutLength = chunk.getInt(at + 4);
+            int stderrLength = chunk.getInt(at + 8);
+            logs.put(chunk.getInt(at), new PlayerLog(new Text(chunk, text, stdoutLength),
+                    new Text(chunk, text + stdoutLength, stderrLength)));
+            text += stdoutLength + stderrLength;
+        }
+        return new GameState(turn, width, height, stateHash, players, cells, logs);
+    }
+
+    /**
+     * Log text left in direct memory until it is shown
+     */
+    private record Text(ByteBuffer chunk, int offset, int length) implements LogText {
+        @Override
+        public String load() {
+            byte[] bytes = new byte[length];
+            chunk.get(offset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return length == 0;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.viewer.elements.LogText;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * One output stream of a player process, collected turn by turn. At most {@code limit} bytes per turn
+ * are kept; the rest is appended undecoded to a spill file created on first overflow and deleted on
+ * {@link #close}, since a player's output only matters while its match runs. Kept bytes go
+ * to a {@link LogSegment} if there is one, so a turn's log is just a slice of it, or else to memory.
+ */
+class OutputCapture {
+    private final String spillPrefix;
+    private final int limit;
+    private final LogSegment segment;
+    private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    private long turnStart;
+    private int keptThisTurn;
+    private long spilledThisTurn;
+    private Path spillPath;
+    private OutputStream spill;
+    private boolean closed;
+
+    /**
+     * @param segment where kept output goes, or null to keep it in memory
+     */
+    OutputCapture(String spillPrefix, int limit, LogSegment segment) {
+        this.spillPrefix = spillPrefix;
+        this.limit = limit;
+        this.segment = segment;
+    }
+
+    synchronized void write(byte[] bytes, int offset, int length) {
+        if (closed) {
+            return; // a reader still draining the dead process must not create a new spill file
+        }
+        int kept = Math.max(0, Math.min(limit - keptThisTurn, length));
+        if (kept > 0) {
+            keep(bytes, offset, kept);
+        }
+        if (kept < length) {
+            spill(bytes, offset + kept, length - kept);
+        }
+    }
+
+    private void keep(byte[] bytes, int offset, int length) {
+        keptThisTurn += length;
+        if (segment == null) {
+            captured.write(bytes, offset, length);
+            return;
+        }
+        try {
+            segment.append(bytes, offset, length);
+        } catch (IOException e) {
+            // The turn's log comes up short
+        }
+    }
+
+    private void spill(byte[] bytes, int offset, int length) {
+        spilledThisTurn += length;
+        try {
+            if (spill == null) {
+                spillPath = Files.createTempFile(spillPrefix + "-", ".log");
+                spill = new BufferedOutputStream(Files.newOutputStream(spillPath), 1 << 16);
+            }
+            spill.write(bytes, offset, length);
+        } catch (IOException e) {
+            // Dropping the overflow is all that is left
+        }
+    }
+
+    /**
+     * Output captured since the last call, with a note on how much went to the spill file
+     */
+    synchronized LogText take() {
+        if (spilledThisTurn > 0) {
+            byte[] note = ("[" + spilledThisTurn + " more bytes in " + (spillPath != null ? spillPath : "nowhere")
+                    + "]\n").getBytes(StandardCharsets.UTF_8);
+            keep(note, 0, note.length);
+            try {
+                if (spill != null) {
+                    spill.flush();
+                }
+            } catch (IOException ignored) {
+            }
+        }
+        LogText text;
+        if (segment != null) {
+            LogSegment.Slice slice = segment.sliceFrom(turnStart);
+            turnStart += slice.length();
+            text = slice;
+        } else {
+            text = LogText.of(captured.toString(StandardCharsets.UTF_8));
+            captured.reset();
+        }
+        keptThisTurn = 0;
+        spilledThisTurn = 0;
+        return text;
+    }
+
+    synchronized void close() {
+        closed = true;
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException ignored) {
+            }
+            try {
+                Files.deleteIfExists(spillPath);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
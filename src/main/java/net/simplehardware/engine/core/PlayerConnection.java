@@ -0,0 +1,71 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.players.StartInfo;
+import net.simplehardware.engine.players.TurnInfo;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The engine's link to one player, either a JAR process or an in-process {@link net.simplehardware.engine.players.Bot}
+ */
+public interface PlayerConnection {
+
+    void start(StartInfo info);
+
+    /**
+     * Hand the turn to the player and wait for its action
+     *
+     * @return the action line, or null/empty if the player sent nothing usable
+     */
+    String requestAction(TurnInfo turn, long timeoutMs) throws TimeoutException;
+
+    /**
+     * Wait until a player that reports readiness after {@link #start} has done so; others count as ready
+     * at once and get the startup time on their first turn instead
+     *
+     * @return false if the player did not report ready within the timeout
+     */
+    default boolean awaitReady(long timeoutMs) {
+        return true;
+    }
+
+    /**
+     * Whether {@link #getLastTurnStats} should include CPU time and memory, which are read from the
+     * process after every turn; called before {@link #start}
+     */
+    default void setResourceSampling(boolean enabled) {
+    }
+
+    /**
+     * Resources used for the last {@link #requestAction}, or null if the player is not a separate process
+     */
+    default TurnStats getLastTurnStats() {
+        return null;
+    }
+
+    /**
+     * Lines the player printed for the last {@link #requestAction} beyond the one used as its action
+     */
+    default int getLastSkippedLines() {
+        return 0;
+    }
+
+    /**
+     * Output the player produced since the last call
+     */
+    PlayerLog takeLog();
+
+    /**
+     * Whether the player speaks the text protocol (and needs time for its JVM to start)
+     */
+    boolean isExternal();
+
+    void destroy();
+
+    @FunctionalInterface
+    interface Factory {
+        PlayerConnection open(int playerId) throws IOException;
+    }
+}
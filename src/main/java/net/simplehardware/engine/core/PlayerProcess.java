@@ -1,62 +1,149 @@
 package net.simplehardware.engine.core;
 
+import net.simplehardware.engine.viewer.elements.LogText;
+
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
- * Wrapper for a player JAR process that handles I/O communication
+ * Wrapper for a player JAR process that handles I/O communication.
+ * A reader thread stamps every stdout line with {@link System#nanoTime()} as it arrives, so response
+ * times do not include the engine's own scheduling delays.
+ * <p>
+ * Output is read as raw bytes. A line is only decoded when the engine takes it, at most
+ * {@link #MAX_QUEUED_LINES} unread lines are kept, and the per-turn logs are bounded by
+ * {@link OutputCapture}, so a bot flooding its streams cannot exhaust the engine's memory.
  */
 public class PlayerProcess {
+    private record Line(byte[] bytes, long arrivedNanos) {
+        String text() {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final Line EOF = new Line(null, 0);
+    private static final long EXIT_GRACE_MS = 2000; // time for a training run to exit and dump its archive
+    private static final int MAX_LINE_BYTES = 4096; // longer lines are cut, no action is that long
+    private static final int MAX_QUEUED_LINES = 256;
+    public static final int DEFAULT_CAPTURE_LIMIT = 64 * 1024;
+
     private final int playerId;
     private final Process process;
-    private final BufferedReader stdoutReader;
-    private final BufferedReader stderrReader;
     private final PrintWriter stdinWriter;
     private final ExecutorService executor;
+    private final LaunchProfiles.Launch launch;
     private volatile boolean timedOut;
-    private final StringBuilder stdoutBuffer = new StringBuilder();
-    private final StringBuilder stderrBuffer = new StringBuilder();
+    private final BlockingQueue<Line> stdoutLines = new LinkedBlockingQueue<>();
+    private long lastResponseNanos;
+    private int lastSkippedLines;
+    private final OutputCapture stdoutCapture;
+    private final OutputCapture stderrCapture;
 
     public PlayerProcess(int playerId, String jarPath) throws IOException {
-        this.playerId = playerId;
-        this.executor = Executors.newFixedThreadPool(2);
+        this(playerId, jarPath, LaunchProfiles.DEFAULT, DEFAULT_CAPTURE_LIMIT, null);
+    }
 
+    /**
+     * @param captureLimit bytes per stream and turn kept for the logs; the rest goes to a spill file
+     * @param segmentDir where the kept output is appended to {@link LogSegment}s, or null to keep it in memory
+     */
+    public PlayerProcess(int playerId, String jarPath, LaunchProfiles profiles, int captureLimit, Path segmentDir)
+            throws IOException {
+        this(playerId, profiles.prepare(jarPath), captureLimit, segmentDir);
+    }
+
+    /**
+     * Talk to a process started elsewhere, such as a stand-in for benchmarks
+     */
+    public PlayerProcess(int playerId, Process process, int captureLimit) throws IOException {
+        this(playerId, new LaunchProfiles.Launch(List.of(), null, null, false), process, captureLimit, null);
+    }
+
+    private PlayerProcess(int playerId, LaunchProfiles.Launch launch, int captureLimit, Path segmentDir)
+            throws IOException {
         // File policyFile = new File("bot.policy");
         // String policyPath = policyFile.getAbsolutePath();
 
         // String absJarPath = new File(jarPath).getAbsolutePath();
 
-        ProcessBuilder pb = new ProcessBuilder(
-                "java",
-                // "-Djava.security.manager",
-                // "-Djava.security.policy=" + policyPath,
-                // "-Dbot.jar.path=" + absJarPath,
-                "-jar",
-                jarPath);
-        this.process = pb.start();
-        this.stdoutReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        this.stderrReader = new BufferedReader(new InputStreamReader(process.getErrorStream()));
-        this.stdinWriter = new PrintWriter(new OutputStreamWriter(process.getOutputStream()), true);
+        this(playerId, launch, new ProcessBuilder(launch.command()).start(), captureLimit, segmentDir);
+    }
+
+    private PlayerProcess(int playerId, LaunchProfiles.Launch launch, Process process, int captureLimit,
+            Path segmentDir) throws IOException {
+        this.playerId = playerId;
+        this.stdoutCapture = new OutputCapture("player" + playerId + "-stdout", captureLimit,
+                segmentDir != null ? LogSegment.create(segmentDir, "player" + playerId + "-stdout") : null);
+        this.stderrCapture = new OutputCapture("player" + playerId + "-stderr", captureLimit,
+                segmentDir != null ? LogSegment.create(segmentDir, "player" + playerId + "-stderr") : null);
+        this.executor = Executors.newFixedThreadPool(2);
+        this.launch = launch;
+        this.process = process;
+        // Flushed explicitly so a whole turn payload goes out at once
+        this.stdinWriter = new PrintWriter(new BufferedWriter(new OutputStreamWriter(process.getOutputStream())));
         this.timedOut = false;
 
+        startStdoutCapture();
         startStderrCapture();
     }
 
-    public void resetIO() {
-        stdoutBuffer.setLength(0);
-        stderrBuffer.setLength(0);
+    private void startStdoutCapture() {
+        executor.submit(() -> {
+            byte[] chunk = new byte[8192];
+            byte[] line = new byte[MAX_LINE_BYTES];
+            int lineLength = 0;
+            long arrived = 0;
+            try (InputStream in = process.getInputStream()) {
+                int read;
+                while ((read = in.read(chunk)) > 0) {
+                    arrived = System.nanoTime();
+                    stdoutCapture.write(chunk, 0, read);
+                    for (int i = 0; i < read; i++) {
+                        byte b = chunk[i];
+                        if (b == '\n') {
+                            int end = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                            queueLine(new Line(Arrays.copyOf(line, end), arrived));
+                            lineLength = 0;
+                        } else if (lineLength < MAX_LINE_BYTES) {
+                            line[lineLength++] = b;
+                        }
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+            if (lineLength > 0) {
+                // A last line without a newline still counts, e.g. an action printed just before exiting
+                int end = line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                queueLine(new Line(Arrays.copyOf(line, end), arrived));
+            }
+            stdoutLines.add(EOF);
+        });
+    }
+
+    /**
+     * Queue a line, dropping the oldest unread one when the bot is far ahead of the engine
+     */
+    private void queueLine(Line line) {
+        if (stdoutLines.size() >= MAX_QUEUED_LINES) {
+            stdoutLines.poll();
+        }
+        stdoutLines.add(line);
     }
 
     private void startStderrCapture() {
         executor.submit(() -> {
-            try {
-                String line;
-                while ((line = stderrReader.readLine()) != null) {
-                    synchronized (stderrBuffer) {
-                        stderrBuffer.append(line).append("\n");
-                    }
+            byte[] chunk = new byte[8192];
+            try (InputStream in = process.getErrorStream()) {
+                int read;
+                while ((read = in.read(chunk)) > 0) {
+                    stderrCapture.write(chunk, 0, read);
                 }
-            } catch (IOException ignored) { }
+            } catch (IOException ignored) {
+            }
         });
     }
 
@@ -65,107 +152,142 @@ public class PlayerProcess {
         stdinWriter.flush();
     }
 
-    public String readLine(long timeoutMs) throws TimeoutException {
-        Future<String> future = executor.submit(() -> {
-            try {
-                String line = stdoutReader.readLine();
-                if (line != null) {
-                    synchronized (stdoutBuffer) {
-                        stdoutBuffer.append(line).append("\n");
-                    }
-                }
-                return line;
-            } catch (IOException e) {
-                return null;
-            }
-        });
+    /**
+     * Send several lines with a single flush
+     *
+     * @return {@link System#nanoTime()} right after the last byte was flushed
+     */
+    public long sendLines(List<String> lines) {
+        for (String line : lines) {
+            stdinWriter.println(line);
+        }
+        stdinWriter.flush();
+        return System.nanoTime();
+    }
 
+    /**
+     * Wait for the next stdout line. The deadline is {@code timeoutNanos} after {@code sentNanos};
+     * a line that arrived before the deadline is accepted even if the engine only gets to it later.
+     */
+    public String readLine(long sentNanos, long timeoutNanos) throws TimeoutException {
+        long deadline = sentNanos + timeoutNanos;
+        Line line;
         try {
-            String result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
-            if (result == null) {
-                timedOut = true;
-                throw new TimeoutException("Player " + playerId + " disconnected");
-            }
-            return result;
-        } catch (TimeoutException e) {
-            future.cancel(true);
-            timedOut = true;
-            throw e;
-        } catch (InterruptedException | ExecutionException e) {
+            line = stdoutLines.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
             timedOut = true;
             throw new TimeoutException("Player " + playerId + " error: " + e.getMessage());
         }
-    }
 
-    public String getStdout() {
-        synchronized (stdoutBuffer) {
-            return stdoutBuffer.toString();
+        if (line == EOF) {
+            stdoutLines.add(EOF);
+            timedOut = true;
+            throw new TimeoutException("Player " + playerId + " disconnected");
         }
+        if (line == null || line.arrivedNanos() - deadline > 0) {
+            timedOut = true;
+            throw new TimeoutException("Player " + playerId + " timed out");
+        }
+        // A line left over from before the payload was already waiting, so it took no time
+        lastResponseNanos = Math.max(0, line.arrivedNanos() - sentNanos);
+        return line.text();
     }
 
-    public String getStderr() {
-        synchronized (stderrBuffer) {
-            return stderrBuffer.toString();
+    /**
+     * Take the lines already queued behind the one returned by {@link #readLine}
+     *
+     * @return the last of them that is not blank, or null if there is none
+     */
+    public String takeLatestLine() {
+        Line latest = null;
+        int skipped = 0;
+        Line next;
+        while ((next = stdoutLines.peek()) != null && next != EOF) {
+            stdoutLines.poll();
+            skipped++;
+            if (!isBlank(next.bytes())) {
+                latest = next;
+            }
         }
+        lastSkippedLines = skipped;
+        return latest != null ? latest.text() : null;
     }
 
-    public void clearOutput() {
-        synchronized (stdoutBuffer) {
-            stdoutBuffer.setLength(0);
-        }
-        synchronized (stderrBuffer) {
-            stderrBuffer.setLength(0);
+    private static boolean isBlank(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
         }
+        return true;
     }
 
-    public boolean isTimedOut() {
-        return timedOut;
+    /**
+     * Number of lines {@link #takeLatestLine} took on its last call
+     */
+    public int getLastSkippedLines() {
+        return lastSkippedLines;
     }
 
-    public void destroy() {
-        try {
-            executor.shutdownNow();
-            stdinWriter.close();
-            stdoutReader.close();
-            stderrReader.close();
-            process.destroyForcibly();
-        } catch (IOException e) {
-            System.err.println("Error closing player process: " + e.getMessage());
-        }
+    /**
+     * Time from the flush of the last payload to the arrival of the line returned by {@link #readLine},
+     * 0 if the line was queued before the flush
+     */
+    public long getLastResponseNanos() {
+        return lastResponseNanos;
     }
 
     /**
-     * Check if there is more output available to read without blocking
+     * Stdout captured since the last call
      */
-    public boolean hasMoreOutput() throws IOException {
-        return stdoutReader.ready();
+    public LogText takeStdout() {
+        return stdoutCapture.take();
+    }
+
+    public LogText takeStderr() {
+        return stderrCapture.take();
+    }
+
+    public ProcessStats sampleStats() {
+        return ProcessStats.sample(process.toHandle());
     }
 
     /**
-     * Read a line from stdout without blocking if available
-     * 
-     * @return the line read, or null if no line is available
+     * Whether the bot reports {@code READY} after the start lines, as set in its launch profile
      */
-    public String readLineNonBlocking() throws IOException {
-        if (stdoutReader.ready()) {
-            String line = stdoutReader.readLine();
-            if (line != null) {
-                synchronized (stdoutBuffer) {
-                    stdoutBuffer.append(line).append("\n");
-                }
-            }
-            return line;
-        }
-        return null;
+    public boolean sendsReady() {
+        return launch.readySignal();
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
     }
 
     /**
-     * Drain all available output from stdout buffer
-     * This prevents buffer accumulation when player outputs multiple lines
+     * Stop the process and store the CDS archive it trained, if any
+     *
+     * @throws IOException if the archive could not be stored; the process is stopped regardless
      */
-    public void drainStdout() throws IOException {
-        while (stdoutReader.ready()) {
-            readLineNonBlocking();
+    public void destroy() throws IOException {
+        try {
+            stdinWriter.close();
+            if (launch.trainingArchive() != null) {
+                // The archive is only written on a normal JVM exit: end of input first, then SIGTERM
+                if (!process.waitFor(EXIT_GRACE_MS, TimeUnit.MILLISECONDS)) {
+                    process.destroy();
+                    process.waitFor(EXIT_GRACE_MS, TimeUnit.MILLISECONDS);
+                }
+            }
+            process.destroyForcibly();
+            executor.shutdownNow();
+            stdoutCapture.close();
+            stderrCapture.close();
+            if (launch.trainingArchive() != null) {
+                process.waitFor();
+                launch.publishArchive();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 }
@@ -0,0 +1,180 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.players.StartInfo;
+import net.simplehardware.engine.players.TurnInfo;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Connection to a JAR player speaking the stdin/stdout protocol.
+ * With a time bank, a slow turn may overrun its timeout by drawing on the bank; the overrun is
+ * deducted and the bank is never refilled during the match.
+ * <p>
+ * With CPU timeouts, a turn is judged by the CPU time the process used since its previous response
+ * instead of wall-clock time, so a bot on an oversubscribed host is not punished for waiting on
+ * the scheduler. Wall-clock time is still capped at {@link #CPU_WALL_FACTOR} times the limit.
+ * <p>
+ * A bot whose launch profile sets {@code readySignal} prints {@code READY} after the start lines and is
+ * waited for before the game starts. Other bots may still be starting their JVM when the first turn is
+ * sent, so that turn gets the startup timeout on top of its own.
+ */
+public class ProcessConnection implements PlayerConnection {
+    public static final int CPU_WALL_FACTOR = 10;
+
+    private final int playerId;
+    private final PlayerProcess process;
+    private final boolean cpuTimeouts;
+    private final PrintStream err;
+    private long timeBankNanos;
+    private long startupNanos; // allowance left for the first turn
+    private boolean sampling; // CPU time and memory wanted without CPU timeouts
+    private int skippedLines;
+    private ProcessStats lastSample;
+    private TurnStats lastTurnStats;
+
+    public ProcessConnection(int playerId, String jarPath) throws IOException {
+        this(playerId, jarPath, new GameEngine.GameConfig());
+    }
+
+    public ProcessConnection(int playerId, String jarPath, GameEngine.GameConfig config) throws IOException {
+        this(playerId, new PlayerProcess(playerId, jarPath, config.launchProfiles, config.outputCaptureBytes,
+                config.logSegmentDir), config);
+    }
+
+    public ProcessConnection(int playerId, PlayerProcess process, GameEngine.GameConfig config) {
+        this.playerId = playerId;
+        this.process = process;
+        this.timeBankNanos = TimeUnit.MILLISECONDS.toNanos(config.timeBankMs);
+        this.startupNanos = TimeUnit.MILLISECONDS.toNanos(config.startupTimeoutMs);
+        this.cpuTimeouts = config.cpuTimeouts;
+        this.err = config.err;
+    }
+
+    @Override
+    public void start(StartInfo info) {
+        // MAZE_WIDTH MAZE_HEIGHT LEAGUE_LEVEL
+        process.sendLine(info.mazeWidth() + " " + info.mazeHeight() + " " + info.leagueLevel());
+
+        // PLAYER_ID START_X START_Y SHEETS_PER_PLAYER (Level 5+)
+        String line2 = info.playerId() + " " + info.startX() + " " + info.startY();
+        if (info.leagueLevel() >= 5) {
+            line2 += " " + info.sheetsPerPlayer();
+        }
+        process.sendLine(line2);
+        if (cpuTimeouts || sampling) {
+            lastSample = process.sampleStats();
+        }
+    }
+
+    @Override
+    public boolean awaitReady(long timeoutMs) {
+        if (!process.sendsReady()) {
+            return true;
+        }
+        long since = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        String line;
+        try {
+            do {
+                line = process.readLine(since, timeoutNanos);
+            } while (!line.trim().equals("READY"));
+        } catch (TimeoutException e) {
+            return false;
+        }
+        startupNanos = 0;
+        return true;
+    }
+
+    @Override
+    public String requestAction(TurnInfo turn, long timeoutMs) throws TimeoutException {
+        // Send turn data (6 lines)
+        long sent = process.sendLines(turn.toProtocolLines());
+        skippedLines = 0;
+
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        long limit = timeoutNanos + timeBankNanos;
+        long allowance = startupNanos;
+        startupNanos = 0;
+        String firstLine;
+        try {
+            firstLine = process.readLine(sent, (cpuTimeouts ? limit * CPU_WALL_FACTOR : limit) + allowance);
+        } finally {
+            recordTurnStats(sent);
+        }
+
+        long used = cpuTimeouts && lastTurnStats.cpuNanos() >= 0 ? lastTurnStats.cpuNanos()
+                : lastTurnStats.wallNanos();
+        long overrun = used - timeoutNanos - allowance;
+        if (overrun > 0) {
+            timeBankNanos -= overrun;
+            if (timeBankNanos < 0) {
+                throw new TimeoutException("Player " + playerId + " exceeded its time limit (" + used / 1_000_000 + " ms)");
+            }
+        }
+        if (firstLine == null || firstLine.trim().isEmpty()) {
+            return firstLine;
+        }
+
+        String latest = process.takeLatestLine();
+        skippedLines = process.getLastSkippedLines();
+        return latest != null ? latest : firstLine;
+    }
+
+    @Override
+    public int getLastSkippedLines() {
+        return skippedLines;
+    }
+
+    private void recordTurnStats(long sent) {
+        long wall = process.getLastResponseNanos();
+        if (process.isTimedOut()) {
+            wall = System.nanoTime() - sent;
+        }
+        if (!cpuTimeouts && !sampling) {
+            lastTurnStats = new TurnStats(wall, -1, -1);
+            return;
+        }
+        ProcessStats sample = process.sampleStats();
+        long cpu = sample.cpuNanos() >= 0 && lastSample != null && lastSample.cpuNanos() >= 0
+                ? sample.cpuNanos() - lastSample.cpuNanos() : -1;
+        lastTurnStats = new TurnStats(wall, cpu, sample.rssBytes());
+        lastSample = sample;
+    }
+
+    @Override
+    public void setResourceSampling(boolean enabled) {
+        sampling = enabled;
+    }
+
+    @Override
+    public TurnStats getLastTurnStats() {
+        return lastTurnStats;
+    }
+
+    public long getTimeBankMs() {
+        return TimeUnit.NANOSECONDS.toMillis(timeBankNanos);
+    }
+
+    @Override
+    public PlayerLog takeLog() {
+        return new PlayerLog(process.takeStdout(), process.takeStderr());
+    }
+
+    @Override
+    public boolean isExternal() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            process.destroy();
+        } catch (IOException e) {
+            err.println(e.getMessage());
+        }
+    }
+}
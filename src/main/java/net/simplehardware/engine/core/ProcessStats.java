@@ -0,0 +1,32 @@
+package net.simplehardware.engine.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * CPU time and resident memory of a player process. CPU time comes from {@link ProcessHandle},
+ * resident memory from {@code /proc/<pid>/status}; values that cannot be read are -1.
+ */
+public record ProcessStats(long cpuNanos, long rssBytes) {
+
+    public static ProcessStats sample(ProcessHandle handle) {
+        long cpu = handle.info().totalCpuDuration().map(Duration::toNanos).orElse(-1L);
+        return new ProcessStats(cpu, readRss(handle.pid()));
+    }
+
+    private static long readRss(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    // "VmRSS:     123456 kB"
+                    String[] parts = line.trim().split("\\s+");
+                    return Long.parseLong(parts[1]) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+        }
+        return -1;
+    }
+}
@@ -7,26 +7,55 @@ import net.simplehardware.engine.game.ActionName;
 import net.simplehardware.engine.game.ActionResult;
 import net.simplehardware.engine.game.Direction;
 import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.game.Occupancy;
+import net.simplehardware.engine.game.StateHash;
 import net.simplehardware.engine.players.Player;
 
+import java.io.PrintStream;
+import java.util.ArrayDeque;
 import java.util.List;
 
 /**
- * Game referee that enforces rules and processes player actions
+ * Game referee that enforces rules and processes player actions.
+ * <p>
+ * With a stall limit of N rounds, it keeps a {@link StateHash} of the match up to date with every action,
+ * and the game is over once N rounds in a row have each ended in a state from the last N rounds, e.g.
+ * because nothing changes or the bots move back and forth between the same cells. Revisiting older
+ * states, such as walking back out of a dead end, does not count.
  */
 public class Referee {
     private final Maze maze;
     private final List<Player> players;
+    private final Occupancy occupancy;
     private final int leagueLevel;
     private int currentTurn;
-    private final boolean debug;
-
-    public Referee(Maze maze, List<Player> players, int leagueLevel, boolean debug) {
+    private final PrintStream debugOut;
+    private final StateHash stateHash; // null without a stall limit
+    private final int stallRounds;
+    private final ArrayDeque<Long> recentStates; // at the end of the last stallRounds rounds, oldest first
+    private int roundsWithoutNewState;
+
+    /**
+     * @param stallRounds rounds in a row that repeat a state of the last as many rounds and end the game,
+     *                    0 for no limit
+     * @param debugOut receives collision traces, or null for none
+     */
+    public Referee(Maze maze, List<Player> players, int leagueLevel, int stallRounds, PrintStream debugOut) {
         this.maze = maze;
         this.players = players;
+        this.occupancy = new Occupancy(maze.getWidth(), players);
         this.leagueLevel = leagueLevel;
         this.currentTurn = 1;
-        this.debug = debug;
+        this.debugOut = debugOut;
+        this.stallRounds = stallRounds;
+        if (stallRounds > 0) {
+            this.stateHash = new StateHash(maze, players);
+            this.recentStates = new ArrayDeque<>(stallRounds + 1);
+            recentStates.add(stateHash.get());
+        } else {
+            this.stateHash = null;
+            this.recentStates = null;
+        }
     }
 
     public ActionResult processAction(Player player, String actionLine) {
@@ -47,7 +76,11 @@ public class Referee {
         try {
             ActionName action = ActionName.valueOf(parts[0].toUpperCase());
 
-            return switch (action) {
+            // An action changes the player and the cell it starts on; a kick also its target cell
+            int x = player.getX();
+            int y = player.getY();
+            long before = stateKey(player) ^ stateKey(x, y);
+            ActionResult result = switch (action) {
                 case GO -> handleGo(player, parts);
                 case POSITION -> handlePosition(player);
                 case TAKE -> handleTake(player);
@@ -55,6 +88,8 @@ public class Referee {
                 case PUT -> handlePut(player);
                 case FINISH -> handleFinish(player);
             };
+            changeState(before ^ stateKey(player) ^ stateKey(x, y));
+            return result;
         } catch (IllegalArgumentException e) {
             return ActionResult.fail("INVALID");
         }
@@ -79,12 +114,12 @@ public class Referee {
             int newX = player.getX() + direction.getDx();
             int newY = player.getY() + direction.getDy();
 
-            Cell targetCell = maze.getCell(newX, newY);
+            Cell targetCell = maze.peekCell(newX, newY);
             if (targetCell == null || !targetCell.isWalkable()) {
                 return ActionResult.fail("BLOCKED");
             }
 
-            player.setPosition(newX, newY);
+            occupancy.move(player, newX, newY);
 
             return ActionResult.ok(direction.name());
         } catch (IllegalArgumentException e) {
@@ -113,6 +148,7 @@ public class Referee {
         if (leagueLevel >= 5 && floor.hasSheet()) {
             player.addSheet();
             floor.setSheet(false);
+            maze.cellChanged(floor.getX(), floor.getY());
             player.setTaking(true);
             return ActionResult.ok("SHEET");
         }
@@ -132,6 +168,7 @@ public class Referee {
 
             player.addForm(form);
             floor.removeForm();
+            maze.cellChanged(floor.getX(), floor.getY());
             return ActionResult.ok("FORM");
         }
 
@@ -169,6 +206,7 @@ public class Referee {
             if (!(targetCell instanceof FloorCell targetFloor)) {
                 return ActionResult.fail("BLOCKED");
             }
+            long targetBefore = stateKey(targetX, targetY);
 
             if (leagueLevel >= 5 && floor.hasSheet()) {
                 if (targetFloor.hasSheet()) {
@@ -176,6 +214,9 @@ public class Referee {
                 }
                 targetFloor.setSheet(true);
                 floor.setSheet(false);
+                maze.cellChanged(floor.getX(), floor.getY());
+                maze.cellChanged(targetX, targetY);
+                changeState(targetBefore ^ stateKey(targetX, targetY));
                 return ActionResult.ok(direction.name());
             }
 
@@ -185,6 +226,9 @@ public class Referee {
                 }
                 targetFloor.setForm(floor.getForm(), floor.getFormOwner());
                 floor.removeForm();
+                maze.cellChanged(floor.getX(), floor.getY());
+                maze.cellChanged(targetX, targetY);
+                changeState(targetBefore ^ stateKey(targetX, targetY));
                 return ActionResult.ok(direction.name());
             }
 
@@ -222,6 +266,7 @@ public class Referee {
 
         player.removeSheet();
         floor.setSheet(true);
+        maze.cellChanged(floor.getX(), floor.getY());
         return ActionResult.ok("");
     }
 
@@ -230,7 +275,7 @@ public class Referee {
             return ActionResult.fail("FORM");
         }
 
-        Cell cell = maze.getCell(player.getX(), player.getY());
+        Cell cell = maze.peekCell(player.getX(), player.getY());
         if (!(cell instanceof FinishCell finish)) {
             return ActionResult.fail("BLOCKED");
         }
@@ -253,28 +298,23 @@ public class Referee {
                 if (!p.isActive())
                     continue;
 
+                long before = stateKey(p);
                 if (p.isTalking()) {
                     p.setTalking(false);
                 } else {
-                    boolean collision = false;
-                    for (Player other : players) {
-                        if (other.getId() != p.getId() && other.isActive() &&
-                                other.getX() == p.getX() && other.getY() == p.getY()) {
-                            collision = true;
-                            if (debug) {
-                                System.out.println("Collision detected:");
-                                System.out.println("  Player " + p.getId() + " at (" + p.getX() + "," + p.getY() + ")");
-                                System.out.println("  Player " + other.getId() + " at (" + other.getX() + ","
-                                        + other.getY() + ")");
-                                System.out.println("  Both players will be TALKING next turn");
-                            }
-                            break;
+                    Player other = occupancy.findOpponent(p.getX(), p.getY(), p);
+                    if (other != null) {
+                        if (debugOut != null) {
+                            debugOut.println("Collision detected:");
+                            debugOut.println("  Player " + p.getId() + " at (" + p.getX() + "," + p.getY() + ")");
+                            debugOut.println("  Player " + other.getId() + " at (" + other.getX() + ","
+                                    + other.getY() + ")");
+                            debugOut.println("  Both players will be TALKING next turn");
                         }
-                    }
-                    if (collision) {
                         p.setTalking(true);
                     }
                 }
+                changeState(before ^ stateKey(p));
             }
         }
 
@@ -284,6 +324,54 @@ public class Referee {
                 player.setTaking(false);
             }
         }
+
+        if (stateHash != null) {
+            long state = stateHash.get();
+            roundsWithoutNewState = recentStates.contains(state) ? roundsWithoutNewState + 1 : 0;
+            recentStates.add(state);
+            if (recentStates.size() > stallRounds) {
+                recentStates.poll();
+            }
+        }
+    }
+
+    /**
+     * Hash of the current state, equal for equal positions, forms, sheets and talking flags;
+     * 0 without a stall limit, when no hash is kept
+     */
+    public long getStateHash() {
+        return stateHash != null ? stateHash.get() : 0;
+    }
+
+    private long stateKey(Player player) {
+        return stateHash != null ? StateHash.key(player) : 0;
+    }
+
+    private long stateKey(int x, int y) {
+        return stateHash != null ? StateHash.key(maze.peekCell(x, y)) : 0;
+    }
+
+    /**
+     * Apply a change given as the XOR of the keys before and after it
+     */
+    private void changeState(long change) {
+        if (stateHash != null) {
+            stateHash.apply(change);
+        }
+    }
+
+    /**
+     * Whether the stall limit ended the game
+     */
+    public boolean isStalled() {
+        return stallRounds > 0 && roundsWithoutNewState >= stallRounds;
+    }
+
+    /**
+     * Player positions by cell, kept up to date as players move
+     */
+    public Occupancy getOccupancy() {
+        return occupancy;
     }
 
     public int getCurrentTurn() {
@@ -291,7 +379,7 @@ public class Referee {
     }
 
     public boolean isGameOver(int maxTurns) {
-        if (currentTurn >= maxTurns) {
+        if (currentTurn >= maxTurns || isStalled()) {
             return true;
         }
 
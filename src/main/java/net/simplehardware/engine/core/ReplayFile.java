@@ -0,0 +1,228 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.viewer.HistorySource;
+import net.simplehardware.engine.viewer.elements.CellSnapshot;
+import net.simplehardware.engine.viewer.elements.CellSnapshot.CellType;
+import net.simplehardware.engine.viewer.elements.GameState;
+import net.simplehardware.engine.viewer.elements.LogText;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Replay written by {@link ReplayRecorder}, read one turn at a time. Opening only reads the trailer;
+ * a turn is found through the offset index at the end of the file and decoded when asked for, and
+ * the last {@link #CACHED_FRAMES} decoded turns are kept. Player logs stay in the file until shown.
+ * <p>
+ * Layout: a header (magic, version, maze name), one frame per turn, the index of frame offsets, and
+ * a trailer with the index offset, the frame count and the magic again. A frame is the deflated
+ * state followed by the raw bytes of the player logs it lists. Version 1 frames lack the state hash.
+ */
+public class ReplayFile implements HistorySource, AutoCloseable {
+    static final int MAGIC = 0x4D5A5250; // "MZRP"
+    static final int VERSION = 2;
+    static final int TRAILER_BYTES = Long.BYTES + Integer.BYTES * 2;
+    private static final int CACHED_FRAMES = 64;
+
+    private static final int HAS_FORM = 1;
+    private static final int HAS_OWNER = 2;
+    private static final int HAS_SHEET = 4;
+    private static final int HAS_FINISH = 8;
+
+    private final FileChannel channel;
+    private final LogSegment logs;
+    private final String mazeName;
+    private final long indexOffset;
+    private final int frames;
+    private final int version;
+    private final Map<Integer, GameState> cache = new LinkedHashMap<>(CACHED_FRAMES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, GameState> eldest) {
+            return size() > CACHED_FRAMES;
+        }
+    };
+
+    public ReplayFile(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < Integer.BYTES * 2 + TRAILER_BYTES) {
+                throw new IOException("Not a replay: " + file);
+            }
+            ByteBuffer trailer = read(size - TRAILER_BYTES, TRAILER_BYTES);
+            this.indexOffset = trailer.getLong();
+            this.frames = trailer.getInt();
+            ByteBuffer header = read(0, Integer.BYTES * 2 + Short.BYTES);
+            if (trailer.getInt() != MAGIC || header.getInt() != MAGIC) {
+                throw new IOException("Not a replay: " + file);
+            }
+            this.version = header.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported replay version in " + file);
+            }
+            byte[] name = new byte[Short.toUnsignedInt(header.getShort())];
+            read(header.position(), name.length).get(name);
+            this.mazeName = new String(name, StandardCharsets.UTF_8);
+            this.logs = LogSegment.open(file);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public String getMazeName() {
+        return mazeName;
+    }
+
+    @Override
+    public int size() {
+        return frames;
+    }
+
+    /**
+     * @throws UncheckedIOException if the frame cannot be read
+     */
+    @Override
+    public synchronized GameState get(int index) {
+        GameState state = cache.get(index);
+        if (state == null) {
+            try {
+                state = readFrame(index);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read turn " + index + " of the replay", e);
+            }
+            cache.put(index, state);
+        }
+        return state;
+    }
+
+    private GameState readFrame(int index) throws IOException {
+        if (index < 0 || index >= frames) {
+            throw new IndexOutOfBoundsException("Frame " + index + " of " + frames);
+        }
+        long offset = read(indexOffset + (long) index * Long.BYTES, Long.BYTES).getLong();
+        int length = read(offset, Integer.BYTES).getInt();
+        byte[] deflated = new byte[length];
+        read(offset + Integer.BYTES, length).get(deflated);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(deflated)))) {
+            return decode(in, offset + Integer.BYTES + length);
+        }
+    }
+
+    private GameState decode(DataInputStream in, long logOffset) throws IOException {
+        int turn = in.readInt();
+        int width = in.readInt();
+        int height = in.readInt();
+        long stateHash = version >= 2 ? in.readLong() : 0;
+
+        int playerCount = in.readInt();
+        Map<Integer, GameState.PlayerSnapshot> players = new HashMap<>();
+        for (int i = 0; i < playerCount; i++) {
+            GameState.PlayerSnapshot player = new GameState.PlayerSnapshot(in.readInt(), in.readInt(), in.readInt(),
+                    in.readInt(), in.readInt(), in.readInt(), in.readBoolean(), in.readBoolean());
+            players.put(player.id(), player);
+        }
+
+        CellType[] types = CellType.values();
+        CellSnapshot[][] cells = new CellSnapshot[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                CellType type = types[in.readByte()];
+                int flags = in.readByte();
+                Character form = (flags & HAS_FORM) != 0 ? in.readChar() : null;
+                Integer owner = (flags & HAS_OWNER) != 0 ? in.readInt() : null;
+                Integer finish = (flags & HAS_FINISH) != 0 ? in.readInt() : null;
+                cells[x][y] = new CellSnapshot(type, x, y, form, owner, (flags & HAS_SHEET) != 0, finish);
+            }
+        }
+
+        int logCount = in.readInt();
+        Map<Integer, PlayerLog> playerLogs = new HashMap<>();
+        for (int i = 0; i < logCount; i++) {
+            int playerId = in.readInt();
+            int stdoutLength = in.readInt();
+            int stderrLength = in.readInt();
+            LogText stdout = new LogSegment.Slice(logs, logOffset, stdoutLength);
+            LogText stderr = new LogSegment.Slice(logs, logOffset + stdoutLength, stderrLength);
+            logOffset += stdoutLength + stderrLength;
+            playerLogs.put(playerId, new PlayerLog(stdout, stderr));
+        }
+        return new GameState(turn, width, height, stateHash, players, cells, playerLogs);
+    }
+
+    /**
+     * Write the state part of a frame; the logs it lists are appended after it raw
+     */
+    static void encode(GameState state, Map<Integer, byte[][]> logs, DataOutputStream out) throws IOException {
+        out.writeInt(state.getTurnNumber());
+        out.writeInt(state.getMazeWidth());
+        out.writeInt(state.getMazeHeight());
+        out.writeLong(state.getStateHash());
+
+        out.writeInt(state.getPlayers().size());
+        for (GameState.PlayerSnapshot player : state.getPlayers().values()) {
+            out.writeInt(player.id());
+            out.writeInt(player.x());
+            out.writeInt(player.y());
+            out.writeInt(player.score());
+            out.writeInt(player.formsCollected());
+            out.writeInt(player.formsRequired());
+            out.writeBoolean(player.active());
+            out.writeBoolean(player.finished());
+        }
+
+        for (CellSnapshot[] column : state.getCells()) {
+            for (CellSnapshot cell : column) {
+                out.writeByte(cell.type().ordinal());
+                out.writeByte((cell.form() != null ? HAS_FORM : 0) | (cell.formOwner() != null ? HAS_OWNER : 0)
+                        | (cell.hasSheet() ? HAS_SHEET : 0) | (cell.finishPlayerId() != null ? HAS_FINISH : 0));
+                if (cell.form() != null) {
+                    out.writeChar(cell.form());
+                }
+                if (cell.formOwner() != null) {
+                    out.writeInt(cell.formOwner());
+                }
+                if (cell.finishPlayerId() != null) {
+                    out.writeInt(cell.finishPlayerId());
+                }
+            }
+        }
+
+        out.writeInt(logs.size());
+        for (Map.Entry<Integer, byte[][]> entry : logs.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue()[0].length);
+            out.writeInt(entry.getValue()[1].length);
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Replay ends early");
+            }
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        logs.close();
+        channel.close();
+    }
+}
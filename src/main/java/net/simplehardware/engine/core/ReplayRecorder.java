@@ -0,0 +1,131 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.players.Player;
+import net.simplehardware.engine.viewer.elements.GameState;
+import net.simplehardware.engine.viewer.elements.PlayerLog;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Streams the start and every turn of a match to a {@link ReplayFile}, so a replay of any length can
+ * be written without holding its history. Only the frame offsets are kept until {@link #close()}
+ * writes the index; a match that ends early still leaves a readable replay of its turns so far.
+ */
+public class ReplayRecorder implements GameListener, Closeable {
+    private final Path file;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+    private long position;
+    private long[] offsets = new long[256];
+    private int frames;
+    private IOException failure;
+    private boolean closed;
+    private Maze maze;
+    private List<Player> players;
+    private Referee referee;
+
+    public ReplayRecorder(Path file, String mazeName) throws IOException {
+        this.file = file;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        byte[] name = mazeName.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(ReplayFile.MAGIC);
+        out.writeInt(ReplayFile.VERSION);
+        out.writeShort(name.length);
+        out.write(name);
+        position = Integer.BYTES * 2 + Short.BYTES + name.length;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getFrameCount() {
+        return frames;
+    }
+
+    @Override
+    public void gameStarted(Maze maze, List<Player> players, Referee referee) {
+        this.maze = maze;
+        this.players = players;
+        this.referee = referee;
+        write(Map.of());
+    }
+
+    @Override
+    public void turnEnded(int turn, Map<Integer, PlayerLog> logs) {
+        write(logs);
+    }
+
+    private void write(Map<Integer, PlayerLog> playerLogs) {
+        if (failure != null || closed) {
+            return;
+        }
+        GameState state = HistoryRecorder.snapshot(maze, players, referee, null);
+
+        Map<Integer, byte[][]> logs = new TreeMap<>();
+        for (Map.Entry<Integer, PlayerLog> entry : playerLogs.entrySet()) {
+            logs.put(entry.getKey(), new byte[][] {
+                    entry.getValue().stdout().getBytes(StandardCharsets.UTF_8),
+                    entry.getValue().stderr().getBytes(StandardCharsets.UTF_8) });
+        }
+
+        try {
+            frame.reset();
+            try (DataOutputStream deflated = new DataOutputStream(new DeflaterOutputStream(frame))) {
+                ReplayFile.encode(state, logs, deflated);
+            }
+            if (frames == offsets.length) {
+                offsets = Arrays.copyOf(offsets, frames * 2);
+            }
+            offsets[frames++] = position;
+            out.writeInt(frame.size());
+            frame.writeTo(out);
+            position += Integer.BYTES + frame.size();
+            for (byte[][] log : logs.values()) {
+                out.write(log[0]);
+                out.write(log[1]);
+                position += log[0].length + log[1].length;
+            }
+        } catch (IOException e) {
+            failure = e; // The game goes on, close() reports it
+        }
+    }
+
+    /**
+     * Write the index and close the file
+     *
+     * @throws IOException if any frame or the index could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (out) {
+            if (failure != null) {
+                throw failure;
+            }
+            long indexOffset = position;
+            for (int i = 0; i < frames; i++) {
+                out.writeLong(offsets[i]);
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(frames);
+            out.writeInt(ReplayFile.MAGIC);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package net.simplehardware.engine.core;
+
+import net.simplehardware.engine.players.Player;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Totals the {@link TurnStats} of every JAR player and prints them when the match is over
+ */
+public class ResourceMetrics implements GameListener {
+    private final Map<Integer, ResourceUsage> usage = new TreeMap<>();
+    private final PrintStream out;
+
+    /**
+     * @param out receives the summary, or null to only collect
+     */
+    public ResourceMetrics(PrintStream out) {
+        this.out = out;
+    }
+
+    public Map<Integer, ResourceUsage> getUsage() {
+        return usage;
+    }
+
+    @Override
+    public boolean wantsResourceStats() {
+        return true;
+    }
+
+    @Override
+    public void actionReceived(Player player, String action, boolean timeout, TurnStats stats) {
+        if (stats != null) {
+            usage.computeIfAbsent(player.getId(), k -> new ResourceUsage()).add(stats);
+        }
+    }
+
+    @Override
+    public void gameEnded(List<Player> players) {
+        if (out == null || usage.isEmpty()) {
+            return;
+        }
+        out.println("\nResource Usage:");
+        for (Map.Entry<Integer, ResourceUsage> entry : usage.entrySet()) {
+            out.println("Player " + entry.getKey() + ": " + entry.getValue());
+        }
+    }
+}
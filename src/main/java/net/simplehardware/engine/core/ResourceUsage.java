@@ -0,0 +1,50 @@
+package net.simplehardware.engine.core;
+
+/**
+ * Per-match totals of a player's {@link TurnStats}
+ */
+public class ResourceUsage {
+    private int turns;
+    private long totalWallNanos;
+    private long maxWallNanos;
+    private long totalCpuNanos;
+    private long maxCpuNanos;
+    private long peakRssBytes = -1;
+
+    public void add(TurnStats stats) {
+        turns++;
+        totalWallNanos += stats.wallNanos();
+        maxWallNanos = Math.max(maxWallNanos, stats.wallNanos());
+        if (stats.cpuNanos() >= 0) {
+            totalCpuNanos += stats.cpuNanos();
+            maxCpuNanos = Math.max(maxCpuNanos, stats.cpuNanos());
+        }
+        peakRssBytes = Math.max(peakRssBytes, stats.rssBytes());
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public long getTotalWallNanos() {
+        return totalWallNanos;
+    }
+
+    public long getTotalCpuNanos() {
+        return totalCpuNanos;
+    }
+
+    public long getPeakRssBytes() {
+        return peakRssBytes;
+    }
+
+    @Override
+    public String toString() {
+        if (turns == 0) {
+            return "no turns";
+        }
+        return String.format("%d turns - wall avg %.1f ms, max %.1f ms - cpu %.0f ms (avg %.1f ms, max %.1f ms)"
+                + " - peak RSS %s", turns, totalWallNanos / 1e6 / turns, maxWallNanos / 1e6, totalCpuNanos / 1e6,
+                totalCpuNanos / 1e6 / turns, maxCpuNanos / 1e6, peakRssBytes < 0 ? "?" : (peakRssBytes >> 20) + " MB");
+    }
+}
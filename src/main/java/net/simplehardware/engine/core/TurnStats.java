@@ -0,0 +1,15 @@
+package net.simplehardware.engine.core;
+
+/**
+ * Resources a player process used for one turn: wall-clock latency from the payload flush to the
+ * response, CPU time since its previous response and resident memory afterwards (-1 if unknown)
+ */
+public record TurnStats(long wallNanos, long cpuNanos, long rssBytes) {
+
+    @Override
+    public String toString() {
+        return String.format("wall %.1f ms, cpu %s, rss %s", wallNanos / 1e6,
+                cpuNanos < 0 ? "?" : String.format("%.1f ms", cpuNanos / 1e6),
+                rssBytes < 0 ? "?" : (rssBytes >> 20) + " MB");
+    }
+}
@@ -0,0 +1,112 @@
+package net.simplehardware.engine.game;
+
+import java.util.Objects;
+
+/**
+ * Typed form of one cell line of the turn protocol, e.g. {@code FORM 2 3 !1}. Immutable; the line sent
+ * to JAR players is encoded once when the view is made, so shared views cost nothing per turn.
+ */
+public final class CellView {
+    public static final int NO_OPPONENT = -1;
+
+    public enum Type {
+        FLOOR, WALL, FORM, SHEET, FINISH
+    }
+
+    public static final CellView FLOOR = new CellView(Type.FLOOR, 0, 0, NO_OPPONENT);
+    public static final CellView WALL = new CellView(Type.WALL, 0, 0, NO_OPPONENT);
+    public static final CellView SHEET = new CellView(Type.SHEET, 0, 0, NO_OPPONENT);
+    public static final CellView OUTSIDE = WALL;
+
+    private final Type type;
+    private final int playerId;
+    private final int value;
+    private final int opponent;
+    private final String protocol;
+
+    /**
+     * @param playerId form owner or finish owner, 0 for other cell types
+     * @param value    form number (A = 1) or required form count of a finish, 0 for other cell types
+     * @param opponent {@link #NO_OPPONENT}, 0 for an opponent on the cell itself, otherwise the distance to
+     *                 the nearest opponent in the looking direction
+     */
+    public CellView(Type type, int playerId, int value, int opponent) {
+        this(type, playerId, value, opponent, encode(type, playerId, value) + marker(opponent));
+    }
+
+    private CellView(Type type, int playerId, int value, int opponent, String protocol) {
+        this.type = type;
+        this.playerId = playerId;
+        this.value = value;
+        this.opponent = opponent;
+        this.protocol = protocol;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public int playerId() {
+        return playerId;
+    }
+
+    public int value() {
+        return value;
+    }
+
+    public int opponent() {
+        return opponent;
+    }
+
+    public boolean hasOpponent() {
+        return opponent != NO_OPPONENT;
+    }
+
+    /**
+     * The same cell with an opponent marker, appended to the text of this view if it has none yet
+     */
+    public CellView withOpponent(int opponent) {
+        if (hasOpponent()) {
+            return new CellView(type, playerId, value, opponent);
+        }
+        return new CellView(type, playerId, value, opponent, protocol + marker(opponent));
+    }
+
+    /**
+     * This cell the way it is sent to JAR players
+     */
+    public String toProtocol() {
+        return protocol;
+    }
+
+    private static String encode(Type type, int playerId, int value) {
+        if (type != Type.FORM && type != Type.FINISH) {
+            return type.name();
+        }
+        return type.name() + ' ' + playerId + ' ' + value;
+    }
+
+    private static String marker(int opponent) {
+        if (opponent == 0) {
+            return " !";
+        }
+        return opponent > 0 ? " !" + opponent : "";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CellView other && type == other.type && playerId == other.playerId
+                && value == other.value && opponent == other.opponent;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, playerId, value, opponent);
+    }
+
+    @Override
+    public String toString() {
+        return "CellView[type=" + type + ", playerId=" + playerId + ", value=" + value + ", opponent=" + opponent
+                + "]";
+    }
+}
@@ -0,0 +1,173 @@
+package net.simplehardware.engine.game;
+
+import net.simplehardware.models.FormInfo;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only maze layout memory-mapped from a compiled {@code .mazebin} file. One instance is shared
+ * by every match on the same file; each {@link Maze} keeps its own overlay of changed cells. The
+ * mapping is released once no maze uses it, and a file that changed on disk is mapped afresh.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int magic "MAZB", int version, int width, int height, long cellsOffset, long specialsOffset
+ * string name, int formCount, formCount x (char id, string name)
+ * cells: width * height x CELL_BYTES, row-major
+ * specials: int count, count x (int x, int y, byte type, short owner)
+ * </pre>
+ * Strings are an int byte length followed by UTF-8. A cell is its JSON type character (one byte)
+ * and its owner (unsigned short).
+ */
+public class CompiledMaze {
+    public static final String EXTENSION = ".mazebin";
+    public static final int MAGIC = 0x4D415A42; // "MAZB"
+    public static final int VERSION = 2;
+    public static final int CELL_BYTES = 3;
+    public static final int SPECIAL_BYTES = 11;
+    private static final long CHUNK_BYTES = 1L << 30;
+
+    private static final Map<Path, Opened> OPEN = new ConcurrentHashMap<>();
+
+    private final int width;
+    private final int height;
+    private final String name;
+    private final List<FormInfo> forms;
+    private final List<Special> specials;
+    private final MappedByteBuffer[] chunks;
+    private final int rowsPerChunk;
+
+    /**
+     * A cell that is not plain wall or floor: start, finish, form or sheet
+     */
+    public record Special(int x, int y, char type, int owner) {
+    }
+
+    /**
+     * A mapped file, reused while the file keeps its size and modification time
+     */
+    private record Opened(long size, FileTime modified, WeakReference<CompiledMaze> maze) {
+    }
+
+    private CompiledMaze(FileChannel channel) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                Math.min(channel.size(), 1 << 16));
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a compiled maze file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported compiled maze version " + version + ", recompile the maze");
+        }
+        this.width = header.getInt();
+        this.height = header.getInt();
+        long cellsOffset = header.getLong();
+        long specialsOffset = header.getLong();
+        this.name = readString(header);
+        int formCount = header.getInt();
+        List<FormInfo> formList = new ArrayList<>();
+        for (int i = 0; i < formCount; i++) {
+            FormInfo form = new FormInfo();
+            form.id = header.getChar();
+            form.name = readString(header);
+            formList.add(form);
+        }
+        this.forms = Collections.unmodifiableList(formList);
+
+        long rowBytes = (long) width * CELL_BYTES;
+        this.rowsPerChunk = (int) Math.max(1, CHUNK_BYTES / rowBytes);
+        int chunkCount = (height + rowsPerChunk - 1) / rowsPerChunk;
+        this.chunks = new MappedByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            int rows = Math.min(rowsPerChunk, height - i * rowsPerChunk);
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    cellsOffset + i * rowsPerChunk * rowBytes, rows * rowBytes);
+        }
+
+        ByteBuffer count = channel.map(FileChannel.MapMode.READ_ONLY, specialsOffset, 4);
+        int specialCount = count.getInt();
+        ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, specialsOffset + 4, specialCount * (long) SPECIAL_BYTES);
+        List<Special> specialList = new ArrayList<>(specialCount);
+        for (int i = 0; i < specialCount; i++) {
+            specialList.add(new Special(table.getInt(), table.getInt(), (char) (table.get() & 0xFF),
+                    table.getShort() & 0xFFFF));
+        }
+        this.specials = Collections.unmodifiableList(specialList);
+    }
+
+    /**
+     * Map a compiled maze file, reusing the mapping if the unchanged file is still mapped in this JVM
+     */
+    public static CompiledMaze open(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        Opened opened = OPEN.get(key);
+        CompiledMaze maze = opened != null && opened.size() == attributes.size()
+                && opened.modified().equals(attributes.lastModifiedTime()) ? opened.maze().get() : null;
+        if (maze == null) {
+            // The mapping stays valid after the channel is closed
+            try (FileChannel channel = FileChannel.open(key, StandardOpenOption.READ)) {
+                maze = new CompiledMaze(channel);
+            }
+            OPEN.values().removeIf(entry -> entry.maze().get() == null);
+            OPEN.put(key, new Opened(attributes.size(), attributes.lastModifiedTime(), new WeakReference<>(maze)));
+        }
+        return maze;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<FormInfo> getForms() {
+        return forms;
+    }
+
+    public List<Special> getSpecials() {
+        return specials;
+    }
+
+    /**
+     * JSON type character of a cell, e.g. '#', ' ', '@', '!', 'S' or a form letter
+     */
+    public char getType(int x, int y) {
+        return (char) (chunks[y / rowsPerChunk].get(offset(x, y)) & 0xFF);
+    }
+
+    public int getOwner(int x, int y) {
+        return chunks[y / rowsPerChunk].getShort(offset(x, y) + 1) & 0xFFFF;
+    }
+
+    private int offset(int x, int y) {
+        return ((y % rowsPerChunk) * width + x) * CELL_BYTES;
+    }
+}
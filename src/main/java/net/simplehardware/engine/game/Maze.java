@@ -1,5 +1,6 @@
 package net.simplehardware.engine.game;
 
+import com.google.gson.Gson;
 import net.simplehardware.engine.cells.Cell;
 import net.simplehardware.engine.cells.FloorCell;
 import net.simplehardware.engine.cells.FinishCell;
@@ -8,62 +9,156 @@ import net.simplehardware.engine.players.Player;
 import net.simplehardware.models.FormInfo;
 import net.simplehardware.models.MazeInfoData;
 
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Represents the maze structure and layout
+ * Represents the maze structure and layout.
+ * Cells live either in an on-heap grid (JSON mazes) or in a shared {@link CompiledMaze} mapping,
+ * in which case every cell handed out by {@link #getCell} is kept in a per-match overlay so
+ * changes to forms and sheets stay local to this maze.
+ * <p>
+ * Plain floor, wall and sheet cells share constant {@link CellView}s. The views of form and finish cells
+ * are encoded once and cached per cell; opponent markers are added per request. Whoever changes a
+ * cell's form, sheet or finish must call {@link #cellChanged}.
  */
 public class Maze {
     private final int width;
     private final int height;
     private final Cell[][] cells;
+    private final CompiledMaze layout;
+    private final Map<Integer, Cell> overlay;
+    private final Map<Integer, CellView> views = new HashMap<>(); // form and finish cells only
     private final String name;
     private final List<FormInfo> forms;
     private final Map<Integer, int[]> startPositions = new HashMap<>();
+    private final MazeIndex index;
 
     public Maze(MazeInfoData data) {
         this.name = data.name;
         this.forms = data.forms != null ? data.forms : new ArrayList<>();
 
         String[] rows = data.maze.split("/");
+        int cellWidth = data.cellWidth > 0 ? data.cellWidth : 2;
         this.height = rows.length;
-        this.width = rows[0].length() / 2; // Each cell is 2 characters
+        this.width = rows[0].length() / cellWidth; // Type character plus owner digits
         this.cells = new Cell[width][height];
+        this.layout = null;
+        this.overlay = null;
+        this.index = new MazeIndex(width);
 
-        parseMaze(rows);
+        parseMaze(rows, cellWidth);
     }
 
-    private void parseMaze(String[] rows) {
+    /**
+     * Open a match-private maze on top of a shared compiled layout
+     */
+    public Maze(CompiledMaze layout) {
+        this.name = layout.getName();
+        this.forms = new ArrayList<>(layout.getForms());
+        this.width = layout.getWidth();
+        this.height = layout.getHeight();
+        this.cells = null;
+        this.layout = layout;
+        this.overlay = new HashMap<>();
+        this.index = new MazeIndex(width);
+
+        for (CompiledMaze.Special special : layout.getSpecials()) {
+            if (special.type() == '@') {
+                startPositions.put(special.owner(), new int[] { special.x(), special.y() });
+            }
+            indexCell(special.x(), special.y(), special.type(), special.owner());
+        }
+        // Only needed for the oracle and random spawns, so the full scan is deferred
+        index.setWalkableSource(() -> {
+            BitSet walkable = new BitSet(width * height);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (layout.getType(x, y) != '#') {
+                        walkable.set(y * width + x);
+                    }
+                }
+            }
+            return walkable;
+        });
+    }
+
+    /**
+     * Load a maze from a JSON file or a compiled {@code .mazebin} file
+     */
+    public static Maze load(String path) throws IOException {
+        if (path.endsWith(CompiledMaze.EXTENSION)) {
+            return new Maze(CompiledMaze.open(Path.of(path)));
+        }
+        try (FileReader reader = new FileReader(path)) {
+            return new Maze(new Gson().fromJson(reader, MazeInfoData.class));
+        }
+    }
+
+    private void parseMaze(String[] rows, int cellWidth) {
+        BitSet walkable = new BitSet(width * height);
         for (int y = 0; y < height; y++) {
             String row = rows[y];
             for (int x = 0; x < width; x++) {
-                int charIndex = x * 2;
+                int charIndex = x * cellWidth;
                 if (charIndex >= row.length())
                     break;
 
                 char cellType = row.charAt(charIndex);
-                char cellData = row.charAt(charIndex + 1);
-                int playerId = Character.isDigit(cellData) ? cellData - '0' : 0;
+                int playerId = parseOwner(row, charIndex + 1, charIndex + cellWidth);
 
                 Cell cell = createCell(x, y, cellType, playerId);
                 cells[x][y] = cell;
                 if (cellType == '@') {
                     startPositions.put(playerId, new int[] { x, y });
                 }
+                if (cell.isWalkable()) {
+                    walkable.set(y * width + x);
+                }
+                indexCell(x, y, cellType, playerId);
+            }
+        }
+        index.setWalkable(walkable);
+    }
+
+    private void indexCell(int x, int y, char type, int playerId) {
+        if (type == '!') {
+            index.addFinish(x, y, playerId);
+        } else if (type == 'S') {
+            index.addSheet(x, y);
+        } else if (type != '@' && Character.isLetter(type) && Character.isUpperCase(type)) {
+            index.addForm(x, y, playerId);
+        }
+    }
+
+    /**
+     * Parse the owner digits of a cell, e.g. {@code "3"} or {@code " 42"}. Spaces are padding;
+     * anything else that is not a digit, like the second {@code #} of a wall, means no owner.
+     */
+    public static int parseOwner(String row, int from, int to) {
+        int owner = 0;
+        for (int i = from; i < Math.min(to, row.length()); i++) {
+            char c = row.charAt(i);
+            if (Character.isDigit(c)) {
+                owner = owner * 10 + (c - '0');
+            } else if (c != ' ') {
+                return 0;
             }
         }
+        return owner;
     }
 
-    private Cell createCell(int x, int y, char type, int playerId) {
+    private static Cell createCell(int x, int y, char type, int playerId) {
         return switch (type) {
             case '#' -> new WallCell(x, y);
-            case '@' -> {
-                startPositions.put(playerId, new int[] { x, y });
-                yield new FloorCell(x, y);
-            }
+            case '@' -> new FloorCell(x, y);
             case '!' -> new FinishCell(x, y, playerId);
             case 'S' -> {
                 FloorCell floor = new FloorCell(x, y);
@@ -89,11 +184,60 @@ public class Maze {
         return height;
     }
 
+    /**
+     * Get a cell for reading or changing it
+     */
     public Cell getCell(int x, int y) {
         if (x < 0 || x >= width || y < 0 || y >= height) {
             return null;
         }
-        return cells[x][y];
+        if (cells != null) {
+            return cells[x][y];
+        }
+        Cell cell = overlay.get(y * width + x);
+        if (cell == null) {
+            cell = createCell(x, y, layout.getType(x, y), layout.getOwner(x, y));
+            // Walls never change, everything else may be changed by the caller
+            if (!(cell instanceof WallCell)) {
+                overlay.put(y * width + x, cell);
+            }
+        }
+        return cell;
+    }
+
+    /**
+     * Get a cell for reading only. On compiled mazes this does not grow the overlay, so
+     * whole-maze scans stay cheap; the returned cell must not be changed.
+     */
+    public Cell peekCell(int x, int y) {
+        if (cells != null || x < 0 || x >= width || y < 0 || y >= height) {
+            return getCell(x, y);
+        }
+        Cell cell = overlay.get(y * width + x);
+        return cell != null ? cell : createCell(x, y, layout.getType(x, y), layout.getOwner(x, y));
+    }
+
+    private boolean isWall(int x, int y) {
+        if (cells != null) {
+            return cells[x][y] instanceof WallCell;
+        }
+        return layout.getType(x, y) == '#';
+    }
+
+    private void setCell(int x, int y, Cell cell) {
+        if (cells != null) {
+            cells[x][y] = cell;
+        } else {
+            overlay.put(y * width + x, cell);
+        }
+        cellChanged(x, y);
+    }
+
+    /**
+     * Drop the cached view of a cell whose form, sheet or finish was changed
+     */
+    public void cellChanged(int x, int y) {
+        views.remove(y * width + x);
     }
 
     public int[] getStartPosition(int playerId) {
@@ -108,6 +252,10 @@ public class Maze {
         return name;
     }
 
+    public MazeIndex getIndex() {
+        return index;
+    }
+
     public List<FormInfo> getForms() {
         return forms;
     }
@@ -117,42 +265,58 @@ public class Maze {
      * 
      * @param dir The direction we are looking in (null for current cell)
      */
-    public String getCellInfo(int x, int y, List<Player> allPlayers, Player currentPlayer, Direction dir,
+    public String getCellInfo(int x, int y, Occupancy occupancy, Player currentPlayer, Direction dir,
             int leagueLevel) {
-        Cell cell = getCell(x, y);
-        if (cell == null) {
-            return "WALL";
-        }
+        return getCellView(x, y, occupancy, currentPlayer, dir, leagueLevel).toProtocol();
+    }
 
-        StringBuilder info = new StringBuilder(cell.getCellType());
-        String details = cell.getCellDetails();
-        if (!details.isEmpty()) {
-            info.append(" ").append(details);
+    /**
+     * Typed variant of {@link #getCellInfo}
+     */
+    public CellView getCellView(int x, int y, Occupancy occupancy, Player currentPlayer, Direction dir,
+            int leagueLevel) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return CellView.OUTSIDE;
         }
+        CellView view = cachedView(x, y);
 
         // Add opponent proximity indicator (Level 3+)
+        int opponent = CellView.NO_OPPONENT;
         if (leagueLevel >= 3) {
-            if (hasOpponent(x, y, allPlayers, currentPlayer)) {
-                info.append(" !");
+            if (occupancy.hasOpponent(x, y, currentPlayer)) {
+                opponent = 0;
             } else if (dir != null) {
-                int distance = findOpponentInDirection(x, y, dir, allPlayers, currentPlayer);
-                if (distance > 0) { info.append(" !").append(distance); }
+                int distance = findOpponentInDirection(x, y, dir, occupancy, currentPlayer);
+                if (distance > 0) { opponent = distance; }
             }
         }
-        return info.toString();
+        return opponent != CellView.NO_OPPONENT ? view.withOpponent(opponent) : view;
     }
 
-    private boolean hasOpponent(int x, int y, List<Player> allPlayers, Player currentPlayer) {
-        for (Player player : allPlayers) {
-            if (player.getId() != currentPlayer.getId() && player.isActive() &&
-                    player.getX() == x && player.getY() == y) {
-                return true;
-            }
+    /**
+     * View of a cell without opponent markers, encoded on first use after a change
+     */
+    private CellView cachedView(int x, int y) {
+        Cell cell = peekCell(x, y);
+        return switch (CellView.Type.valueOf(cell.getCellType())) {
+            case FLOOR -> CellView.FLOOR;
+            case WALL -> CellView.WALL;
+            case SHEET -> CellView.SHEET;
+            case FORM, FINISH -> views.computeIfAbsent(y * width + x, k -> createView(cell));
+        };
+    }
+
+    private static CellView createView(Cell cell) {
+        if (cell instanceof FinishCell finish) {
+            return new CellView(CellView.Type.FINISH, finish.getPlayerId(), finish.getRequiredFormCount(),
+                    CellView.NO_OPPONENT);
         }
-        return false;
+        FloorCell floor = (FloorCell) cell;
+        return new CellView(CellView.Type.FORM, floor.getFormOwner(), floor.getForm() - 'A' + 1,
+                CellView.NO_OPPONENT);
     }
 
-    private int findOpponentInDirection(int startX, int startY, Direction dir, List<Player> allPlayers,
+    private int findOpponentInDirection(int startX, int startY, Direction dir, Occupancy occupancy,
             Player currentPlayer) {
         int dx = dir.getDx();
         int dy = dir.getDy();
@@ -162,11 +326,10 @@ public class Maze {
         int distance = 1;
 
         while (checkX >= 0 && checkX < width && checkY >= 0 && checkY < height) {
-            Cell cell = cells[checkX][checkY];
-            if (cell instanceof WallCell) {
+            if (isWall(checkX, checkY)) {
                 break;
             }
-            if (hasOpponent(checkX, checkY, allPlayers, currentPlayer)) return distance;
+            if (occupancy.hasOpponent(checkX, checkY, currentPlayer)) return distance;
             checkX += dx;
             checkY += dy;
             distance++;
@@ -179,17 +342,11 @@ public class Maze {
      * Update finish cells with required form counts based on player assignments
      */
     public void updateFinishCells(List<Player> players) {
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Cell cell = cells[x][y];
-                if (cell instanceof FinishCell finishCell) {
-                    int playerId = finishCell.getPlayerId();
-                    for (Player player : players) {
-                        if (player.getId() == playerId) {
-                            finishCell.setRequiredFormCount(player.getAssignedForms().size());
-                            break;
-                        }
-                    }
+        for (Player player : players) {
+            for (int cell : index.getFinishCells(player.getId())) {
+                if (getCell(cell % width, cell / width) instanceof FinishCell finishCell) {
+                    finishCell.setRequiredFormCount(player.getAssignedForms().size());
+                    cellChanged(cell % width, cell / width);
                 }
             }
         }
@@ -198,76 +355,70 @@ public class Maze {
     /**
      * Remove forms and finish cells for players that aren't loaded
      */
-    public void removeUnusedPlayerCells(List<Player> players) {
+    public void removeUnusedPlayerCells(List<Player> players, PrintStream log) {
         java.util.Set<Integer> loadedPlayerIds = new java.util.HashSet<>();
         for (Player player : players) {
             loadedPlayerIds.add(player.getId());
         }
 
-        System.out.println("Loaded player IDs: " + loadedPlayerIds);
+        log.println("Loaded player IDs: " + loadedPlayerIds);
         int formsRemoved = 0;
         int finishRemoved = 0;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Cell cell = cells[x][y];
-
-                if (cell instanceof FinishCell finishCell) {
-                    if (!loadedPlayerIds.contains(finishCell.getPlayerId())) {
-                        cells[x][y] = new FloorCell(x, y);
-                        finishRemoved++;
-                    }
+        for (int owner : index.getFinishOwners()) {
+            if (!loadedPlayerIds.contains(owner)) {
+                for (int cell : index.getFinishCells(owner)) {
+                    setCell(cell % width, cell / width, new FloorCell(cell % width, cell / width));
+                    finishRemoved++;
                 }
-
-                else if (cell instanceof FloorCell floor) {
-                    if (floor.getForm() != null && floor.getFormOwner() != null) {
-                        if (!loadedPlayerIds.contains(floor.getFormOwner())) {
-                            System.out.println("Removing form " + floor.getForm() + " for player "
-                                    + floor.getFormOwner() + " at (" + x + "," + y + ")");
-                            floor.removeForm();
-                            formsRemoved++;
-                        }
+                index.removeFinishes(owner);
+            }
+        }
+        for (int owner : index.getFormOwners()) {
+            if (!loadedPlayerIds.contains(owner)) {
+                for (int cell : index.getFormCells(owner)) {
+                    int x = cell % width;
+                    int y = cell / width;
+                    if (getCell(x, y) instanceof FloorCell floor && floor.getForm() != null) {
+                        log.println("Removing form " + floor.getForm() + " for player "
+                                + floor.getFormOwner() + " at (" + x + "," + y + ")");
+                        floor.removeForm();
+                        cellChanged(x, y);
+                        formsRemoved++;
                     }
                 }
+                index.removeForms(owner);
             }
         }
-        System.out.println(
+        log.println(
                 "Removed " + formsRemoved + " forms and " + finishRemoved + " finish cells for unloaded players");
 
         int remainingForms = 0;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Cell cell = cells[x][y];
-                if (cell instanceof FloorCell floor) {
-                    if (floor.getForm() != null) {
-                        System.out.println("Remaining form: " + floor.getForm() + " for player " + floor.getFormOwner()
-                                + " at (" + x + "," + y + ")");
-                        remainingForms++;
-                    }
-                }
+        for (int cell : index.getAllFormCells()) {
+            if (peekCell(cell % width, cell / width) instanceof FloorCell floor && floor.getForm() != null) {
+                log.println("Remaining form: " + floor.getForm() + " for player " + floor.getFormOwner()
+                        + " at (" + cell % width + "," + cell / width + ")");
+                remainingForms++;
             }
         }
-        System.out.println("Total remaining forms: " + remainingForms);
+        log.println("Total remaining forms: " + remainingForms);
     }
 
     /**
      * Apply level-specific restrictions to the maze
      */
-    public void applyLevelRestrictions(int level) {
+    public void applyLevelRestrictions(int level, PrintStream log) {
         if (level == 1) {
-            System.out.println("Applying Level 1 restrictions: Removing all forms");
+            log.println("Applying Level 1 restrictions: Removing all forms");
             int formsRemoved = 0;
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    Cell cell = cells[x][y];
-                    if (cell instanceof FloorCell floor) {
-                        if (floor.getForm() != null) {
-                            floor.removeForm();
-                            formsRemoved++;
-                        }
-                    }
+            for (int cell : index.getAllFormCells()) {
+                if (getCell(cell % width, cell / width) instanceof FloorCell floor && floor.getForm() != null) {
+                    floor.removeForm();
+                    cellChanged(cell % width, cell / width);
+                    formsRemoved++;
                 }
             }
-            System.out.println("Removed " + formsRemoved + " forms for Level 1");
+            index.removeAllForms();
+            log.println("Removed " + formsRemoved + " forms for Level 1");
         }
     }
 }
@@ -0,0 +1,131 @@
+package net.simplehardware.engine.game;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Positions of the interesting cells of a maze, collected in one pass when the maze is loaded so
+ * match setup never has to scan the whole grid per player. Cells are stored as {@code y * width + x}
+ * in row-major order.
+ * <p>
+ * The index follows the setup changes made through {@link Maze} (level restrictions, unused players),
+ * but not forms and sheets moved during play.
+ */
+public class MazeIndex {
+    private final int width;
+    private final Map<Integer, List<Integer>> formCells = new TreeMap<>();
+    private final Map<Integer, List<Integer>> finishCells = new TreeMap<>();
+    private final List<Integer> sheetCells = new ArrayList<>();
+    private Supplier<BitSet> walkableSource;
+    private BitSet walkable;
+
+    MazeIndex(int width) {
+        this.width = width;
+    }
+
+    void addForm(int x, int y, int owner) {
+        formCells.computeIfAbsent(owner, k -> new ArrayList<>()).add(y * width + x);
+    }
+
+    void addFinish(int x, int y, int owner) {
+        finishCells.computeIfAbsent(owner, k -> new ArrayList<>()).add(y * width + x);
+    }
+
+    void addSheet(int x, int y) {
+        sheetCells.add(y * width + x);
+    }
+
+    void setWalkable(BitSet walkable) {
+        this.walkable = walkable;
+    }
+
+    /**
+     * Compute the walkable cells on first use instead, for mazes where that needs a full scan
+     */
+    void setWalkableSource(Supplier<BitSet> source) {
+        this.walkableSource = source;
+    }
+
+    void removeForms(int owner) {
+        formCells.remove(owner);
+    }
+
+    void removeAllForms() {
+        formCells.clear();
+    }
+
+    void removeFinishes(int owner) {
+        finishCells.remove(owner);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Owners that have at least one form, in ascending order
+     */
+    public List<Integer> getFormOwners() {
+        return new ArrayList<>(formCells.keySet());
+    }
+
+    public List<Integer> getFinishOwners() {
+        return new ArrayList<>(finishCells.keySet());
+    }
+
+    public List<Integer> getFormCells(int owner) {
+        return Collections.unmodifiableList(formCells.getOrDefault(owner, List.of()));
+    }
+
+    public List<Integer> getFinishCells(int owner) {
+        return Collections.unmodifiableList(finishCells.getOrDefault(owner, List.of()));
+    }
+
+    public List<Integer> getAllFormCells() {
+        List<Integer> all = new ArrayList<>();
+        formCells.values().forEach(all::addAll);
+        return all;
+    }
+
+    public List<Integer> getAllFinishCells() {
+        List<Integer> all = new ArrayList<>();
+        finishCells.values().forEach(all::addAll);
+        return all;
+    }
+
+    public List<Integer> getSheetCells() {
+        return Collections.unmodifiableList(sheetCells);
+    }
+
+    /**
+     * Every cell that is not a wall. Shared, must not be changed.
+     */
+    public BitSet getWalkable() {
+        if (walkable == null) {
+            walkable = walkableSource.get();
+        }
+        return walkable;
+    }
+
+    /**
+     * Walkable cells that are not a finish, in row-major order
+     */
+    public List<Integer> getFloorCells() {
+        BitSet floors = (BitSet) getWalkable().clone();
+        for (List<Integer> cells : finishCells.values()) {
+            for (int cell : cells) {
+                floors.clear(cell);
+            }
+        }
+        List<Integer> result = new ArrayList<>(floors.cardinality());
+        for (int cell = floors.nextSetBit(0); cell >= 0; cell = floors.nextSetBit(cell + 1)) {
+            result.add(cell);
+        }
+        return result;
+    }
+}
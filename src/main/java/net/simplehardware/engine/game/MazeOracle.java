@@ -0,0 +1,241 @@
+package net.simplehardware.engine.game;
+
+import net.simplehardware.engine.cells.FinishCell;
+import net.simplehardware.engine.cells.FloorCell;
+import net.simplehardware.engine.players.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Shortest-path knowledge about a prepared maze. BFS runs once from every start, form and
+ * finish cell and keeps only the distances between those cells, using a bitset flood fill per
+ * source that stops once every source is reached, and running the sources in parallel on large mazes.
+ */
+public class MazeOracle {
+    private static final int PARALLEL_WORK_LIMIT = 1 << 22;
+    private static final int[][] STEPS = { { 0, -1 }, { 1, 0 }, { 0, 1 }, { -1, 0 } };
+
+    private final Maze maze;
+    private final int width;
+    private final int height;
+    private final BitSet walkable;
+    private final Map<Integer, Integer> sourceByCell = new HashMap<>();
+    private final int[][] sourceDistances;
+    private final Map<Integer, Integer> optimalActions = new HashMap<>();
+    private final Map<Integer, String> problems = new HashMap<>();
+
+    private MazeOracle(Maze maze, List<int[]> sources) {
+        this.maze = maze;
+        this.width = maze.getWidth();
+        this.height = maze.getHeight();
+        this.walkable = maze.getIndex().getWalkable();
+
+        List<Integer> sourceCells = new ArrayList<>();
+        for (int[] source : sources) {
+            int index = source[1] * width + source[0];
+            if (!sourceByCell.containsKey(index)) {
+                sourceByCell.put(index, sourceCells.size());
+                sourceCells.add(index);
+            }
+        }
+
+        int count = sourceCells.size();
+        this.sourceDistances = new int[count][];
+
+        IntStream range = IntStream.range(0, count);
+        if ((long) width * height * count > PARALLEL_WORK_LIMIT) {
+            range = range.parallel();
+        }
+        range.forEach(i -> sourceDistances[i] = flood(sourceCells.get(i), count));
+    }
+
+    /**
+     * Build the oracle for the start, form and finish cells currently in the maze
+     */
+    public static MazeOracle build(Maze maze, List<Player> players) {
+        List<int[]> sources = new ArrayList<>();
+        for (Player player : players) {
+            sources.add(new int[] { player.getStartX(), player.getStartY() });
+        }
+        MazeIndex index = maze.getIndex();
+        List<Integer> targets = index.getAllFormCells();
+        targets.addAll(index.getAllFinishCells());
+        for (int cell : targets) {
+            sources.add(new int[] { cell % index.getWidth(), cell / index.getWidth() });
+        }
+        MazeOracle oracle = new MazeOracle(maze, sources);
+        for (Player player : players) {
+            String[] problem = new String[1];
+            oracle.optimalActions.put(player.getId(), oracle.solve(player, problem));
+            if (problem[0] != null) {
+                oracle.problems.put(player.getId(), problem[0]);
+            }
+        }
+        return oracle;
+    }
+
+    /**
+     * Level-synchronous BFS over the walkable bitset, stopping as soon as every source has been reached
+     *
+     * @return distance to every source, -1 if unreachable
+     */
+    private int[] flood(int start, int sourceCount) {
+        int[] result = new int[sourceCount];
+        Arrays.fill(result, -1);
+        if (!walkable.get(start)) {
+            return result;
+        }
+
+        BitSet visited = new BitSet(width * height);
+        int[] frontier = new int[16];
+        frontier[0] = start;
+        int frontierSize = 1;
+        int[] next = new int[16];
+        visited.set(start);
+        int distance = 0;
+        int found = 0;
+
+        while (frontierSize > 0 && found < sourceCount) {
+            int nextSize = 0;
+            for (int i = 0; i < frontierSize; i++) {
+                int cell = frontier[i];
+                Integer source = sourceByCell.get(cell);
+                if (source != null) {
+                    result[source] = distance;
+                    found++;
+                }
+
+                int x = cell % width;
+                int y = cell / width;
+                for (int[] step : STEPS) {
+                    int nx = x + step[0];
+                    int ny = y + step[1];
+                    if (nx < 0 || nx >= width || ny < 0 || ny >= height) {
+                        continue;
+                    }
+                    int neighbour = ny * width + nx;
+                    if (walkable.get(neighbour) && !visited.get(neighbour)) {
+                        visited.set(neighbour);
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, nextSize * 2);
+                        }
+                        next[nextSize++] = neighbour;
+                    }
+                }
+            }
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            frontierSize = nextSize;
+            distance++;
+        }
+        return result;
+    }
+
+    /**
+     * Shortest walk between two start, form or finish cells
+     *
+     * @return the number of moves, or -1 if unreachable or not a known cell
+     */
+    public int distance(int fromX, int fromY, int toX, int toY) {
+        Integer from = sourceByCell.get(fromY * width + fromX);
+        Integer to = sourceByCell.get(toY * width + toX);
+        if (from == null || to == null) {
+            return -1;
+        }
+        return sourceDistances[from][to];
+    }
+
+    /**
+     * Fewest actions for a player to finish from the initial layout: moves, one TAKE per form and
+     * the FINISH itself
+     *
+     * @return the action count, or -1 if the player cannot finish
+     */
+    public int optimalActions(Player player) {
+        return optimalActions.getOrDefault(player.getId(), -1);
+    }
+
+    /**
+     * Reject mazes where a player cannot reach all its forms in order and then its finish
+     */
+    public void validate(List<Player> players) {
+        for (Player player : players) {
+            String problem = problems.get(player.getId());
+            if (problem != null) {
+                throw new IllegalArgumentException(
+                        "Maze '" + maze.getName() + "' is unsolvable: player " + player.getId() + " " + problem);
+            }
+        }
+    }
+
+    private int solve(Player player, String[] problem) {
+        List<List<Integer>> stages = new ArrayList<>();
+        List<String> stageNames = new ArrayList<>();
+        Map<Character, List<Integer>> formCells = new HashMap<>();
+        List<Integer> finishCells = new ArrayList<>();
+        MazeIndex index = maze.getIndex();
+        for (int cell : index.getFinishCells(player.getId())) {
+            if (maze.peekCell(cell % width, cell / width) instanceof FinishCell) {
+                finishCells.add(cell);
+            }
+        }
+        for (int cell : index.getFormCells(player.getId())) {
+            if (maze.peekCell(cell % width, cell / width) instanceof FloorCell floor && floor.getForm() != null) {
+                formCells.computeIfAbsent(floor.getForm(), k -> new ArrayList<>()).add(cell);
+            }
+        }
+
+        stages.add(List.of(player.getStartY() * width + player.getStartX()));
+        stageNames.add("start");
+        for (char form : player.getAssignedForms()) {
+            stages.add(formCells.getOrDefault(form, List.of()));
+            stageNames.add("form " + form);
+        }
+        stages.add(finishCells);
+        stageNames.add("finish");
+
+        // Cheapest walk to each cell of a stage, over all cells of the previous stage
+        List<Integer> previous = stages.getFirst();
+        int[] best = { 0 };
+        for (int s = 1; s < stages.size(); s++) {
+            List<Integer> stage = stages.get(s);
+            int[] current = new int[stage.size()];
+            boolean reachable = false;
+            for (int i = 0; i < stage.size(); i++) {
+                int to = sourceByCell.get(stage.get(i));
+                current[i] = -1;
+                for (int j = 0; j < previous.size(); j++) {
+                    int d = best[j] < 0 ? -1 : sourceDistances[sourceByCell.get(previous.get(j))][to];
+                    if (d >= 0 && (current[i] < 0 || best[j] + d < current[i])) {
+                        current[i] = best[j] + d;
+                    }
+                }
+                reachable |= current[i] >= 0;
+            }
+            if (!reachable) {
+                if (problem != null) {
+                    problem[0] = stage.isEmpty() ? "has no " + stageNames.get(s)
+                            : "cannot reach " + stageNames.get(s) + " from " + stageNames.get(s - 1);
+                }
+                return -1;
+            }
+            previous = stage;
+            best = current;
+        }
+
+        int moves = -1;
+        for (int d : best) {
+            if (d >= 0 && (moves < 0 || d < moves)) {
+                moves = d;
+            }
+        }
+        return moves + player.getAssignedForms().size() + 1;
+    }
+}
@@ -0,0 +1,66 @@
+package net.simplehardware.engine.game;
+
+import net.simplehardware.engine.players.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which players stand on which cell, so opponent and collision checks do not scan every player.
+ * Inactive players stay listed and are filtered when queried.
+ */
+public class Occupancy {
+    private final int width;
+    private final Map<Integer, List<Player>> byCell = new HashMap<>();
+
+    public Occupancy(int width, List<Player> players) {
+        this.width = width;
+        for (Player player : players) {
+            add(player, player.getX(), player.getY());
+        }
+    }
+
+    /**
+     * Move a player to a new cell. Call this instead of {@link Player#setPosition} directly.
+     */
+    public void move(Player player, int x, int y) {
+        List<Player> here = byCell.get(player.getY() * width + player.getX());
+        if (here != null) {
+            here.remove(player);
+            if (here.isEmpty()) {
+                byCell.remove(player.getY() * width + player.getX());
+            }
+        }
+        player.setPosition(x, y);
+        add(player, x, y);
+    }
+
+    private void add(Player player, int x, int y) {
+        byCell.computeIfAbsent(y * width + x, k -> new ArrayList<>(2)).add(player);
+    }
+
+    /**
+     * Whether an active player other than {@code current} stands on the cell
+     */
+    public boolean hasOpponent(int x, int y, Player current) {
+        return findOpponent(x, y, current) != null;
+    }
+
+    /**
+     * An active player other than {@code current} on the cell, or null
+     */
+    public Player findOpponent(int x, int y, Player current) {
+        List<Player> here = byCell.get(y * width + x);
+        if (here == null) {
+            return null;
+        }
+        for (Player player : here) {
+            if (player.getId() != current.getId() && player.isActive()) {
+                return player;
+            }
+        }
+        return null;
+    }
+}
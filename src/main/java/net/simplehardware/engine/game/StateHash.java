@@ -0,0 +1,76 @@
+package net.simplehardware.engine.game;
+
+import net.simplehardware.engine.cells.Cell;
+import net.simplehardware.engine.cells.FloorCell;
+import net.simplehardware.engine.players.Player;
+
+import java.util.List;
+
+/**
+ * Zobrist-style hash of the state that decides a match: player positions, collected forms, sheets and
+ * talking flags, and the forms and sheets lying on the floor. Each player and each non-empty floor cell
+ * has a key mixed from its values with SplitMix64 instead of looked up in a table of random numbers.
+ * The hash is the XOR of all keys, so a change is applied by XOR-ing out the keys of what it touched
+ * before and XOR-ing in their keys after.
+ */
+public class StateHash {
+    private static final long PLAYER = 0x504C4159L;
+    private static final long CELL = 0x43454C4CL;
+
+    private long value;
+
+    /**
+     * Hash of a maze before any forms or sheets were moved, so only the cells the index lists can have a key
+     */
+    public StateHash(Maze maze, List<Player> players) {
+        for (Player player : players) {
+            value ^= key(player);
+        }
+        MazeIndex index = maze.getIndex();
+        int width = maze.getWidth();
+        for (List<Integer> cells : List.of(index.getAllFormCells(), index.getSheetCells())) {
+            for (int cell : cells) {
+                value ^= key(maze.peekCell(cell % width, cell / width));
+            }
+        }
+    }
+
+    public long get() {
+        return value;
+    }
+
+    /**
+     * Apply a change given as the XOR of the touched keys before and after it
+     */
+    public void apply(long change) {
+        value ^= change;
+    }
+
+    public static long key(Player player) {
+        long key = mix(PLAYER ^ player.getId());
+        key = mix(key ^ ((long) player.getX() << 32 | player.getY() & 0xFFFFFFFFL));
+        key = mix(key ^ ((long) player.getCollectedForms().size() << 32 | player.getSheets().size()));
+        return mix(key ^ (player.isTalking() ? 1 : 0) ^ (player.isFinished() ? 2 : 0));
+    }
+
+    /**
+     * Key of a cell, 0 for walls and empty floor, which never change
+     */
+    public static long key(Cell cell) {
+        if (!(cell instanceof FloorCell floor) || floor.getForm() == null && !floor.hasSheet()) {
+            return 0;
+        }
+        long key = mix(CELL ^ ((long) cell.getX() << 32 | cell.getY() & 0xFFFFFFFFL));
+        if (floor.getForm() != null) {
+            key = mix(key ^ ((long) floor.getForm() << 32 | floor.getFormOwner() & 0xFFFFFFFFL));
+        }
+        return mix(key ^ (floor.hasSheet() ? 1 : 0));
+    }
+
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,20 @@
+package net.simplehardware.engine.players;
+
+/**
+ * A player implemented in Java that runs inside the engine instead of as a JAR process.
+ * Implementations need a public no-arg constructor to be loaded with {@code bot:<class name>}.
+ */
+public interface Bot {
+
+    /**
+     * Called once before the first turn
+     */
+    void start(StartInfo info);
+
+    /**
+     * Choose the action for this turn, e.g. {@code GO NORTH}
+     *
+     * @return the action line, or null to send nothing
+     */
+    String act(TurnInfo turn);
+}
@@ -21,6 +21,7 @@ public class Player {
     private boolean active;
     private boolean timedOut;
     private int score;
+    private int turnsTaken;
     private Direction dir;
 
     private final List<Character> assignedForms;
@@ -179,4 +180,12 @@ public class Player {
     public void addScore(int points) {
         score = Math.max(0, score + points);
     }
+
+    public int getTurnsTaken() {
+        return turnsTaken;
+    }
+
+    public void countTurn() {
+        turnsTaken++;
+    }
 }
@@ -0,0 +1,8 @@
+package net.simplehardware.engine.players;
+
+/**
+ * Game setup handed to a player before the first turn (the two init lines of the protocol)
+ */
+public record StartInfo(int mazeWidth, int mazeHeight, int leagueLevel, int playerId, int startX, int startY,
+                        int sheetsPerPlayer) {
+}
@@ -0,0 +1,31 @@
+package net.simplehardware.engine.players;
+
+import net.simplehardware.engine.game.ActionResult;
+import net.simplehardware.engine.game.CellView;
+import net.simplehardware.engine.game.Direction;
+
+import java.util.List;
+
+/**
+ * Everything a player learns at the start of its turn (the six turn lines of the protocol)
+ */
+public record TurnInfo(int turn, ActionResult lastResult, CellView current, CellView north, CellView east,
+                       CellView south, CellView west) {
+
+    public CellView neighbour(Direction dir) {
+        return switch (dir) {
+            case NORTH -> north;
+            case EAST -> east;
+            case SOUTH -> south;
+            case WEST -> west;
+        };
+    }
+
+    /**
+     * Encode this turn as the six protocol lines sent to JAR players
+     */
+    public List<String> toProtocolLines() {
+        return List.of(lastResult.toString(), current.toProtocol(), north.toProtocol(), east.toProtocol(),
+                south.toProtocol(), west.toProtocol());
+    }
+}
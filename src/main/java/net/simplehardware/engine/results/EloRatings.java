@@ -0,0 +1,75 @@
+package net.simplehardware.engine.results;
+
+import net.simplehardware.models.MatchResultData;
+import net.simplehardware.models.RatingsData;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multiplayer Elo: a match counts as a game between every pair of its players, ranked by score and
+ * then by collected forms (the same order as the final scores). Each pair moves the ratings by
+ * {@link #K} / (players - 1), so a match is worth the same in total regardless of its size. A bot in
+ * several seats gets one win, draw or loss per match, a win if any of its seats won.
+ */
+public final class EloRatings {
+    public static final double K = 32;
+
+    private EloRatings() {
+    }
+
+    public static void apply(RatingsData ratings, MatchResultData result) {
+        if (result.error != null || result.players.isEmpty()) {
+            return;
+        }
+        List<MatchResultData.PlayerResult> players = result.players;
+        int n = players.size();
+        double[] deltas = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                MatchResultData.PlayerResult a = players.get(i);
+                MatchResultData.PlayerResult b = players.get(j);
+                if (a.bot.equals(b.bot)) {
+                    continue; // self-play says nothing about strength
+                }
+                double ra = entry(ratings, a.bot).rating;
+                double rb = entry(ratings, b.bot).rating;
+                double expected = 1 / (1 + Math.pow(10, (rb - ra) / 400));
+                double actual = compare(a, b) > 0 ? 1 : compare(a, b) < 0 ? 0 : 0.5;
+                double change = K / (n - 1) * (actual - expected);
+                deltas[i] += change;
+                deltas[j] -= change;
+            }
+        }
+
+        Map<String, Boolean> won = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            MatchResultData.PlayerResult player = players.get(i);
+            entry(ratings, player.bot).rating += deltas[i];
+            won.merge(player.bot, result.winner != null && result.winner == player.id, Boolean::logicalOr);
+        }
+        for (Map.Entry<String, Boolean> bot : won.entrySet()) {
+            RatingsData.RatingEntry entry = entry(ratings, bot.getKey());
+            entry.matches++;
+            if (result.winner == null) {
+                entry.draws++;
+            } else if (bot.getValue()) {
+                entry.wins++;
+            } else {
+                entry.losses++;
+            }
+        }
+        ratings.matches++;
+    }
+
+    private static int compare(MatchResultData.PlayerResult a, MatchResultData.PlayerResult b) {
+        int byScore = Integer.compare(a.score, b.score);
+        return byScore != 0 ? byScore : Integer.compare(a.forms, b.forms);
+    }
+
+    private static RatingsData.RatingEntry entry(RatingsData ratings, String bot) {
+        return ratings.players.computeIfAbsent(bot, k -> new RatingsData.RatingEntry());
+    }
+}
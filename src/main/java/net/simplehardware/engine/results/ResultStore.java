@@ -0,0 +1,168 @@
+package net.simplehardware.engine.results;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import net.simplehardware.models.MatchResultData;
+import net.simplehardware.models.RatingsData;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only store of match results with Elo ratings kept up to date per match.
+ * <p>
+ * The directory holds {@code results.jsonl}, one {@link MatchResultData} per line and never rewritten,
+ * and {@code ratings.json}, a {@link RatingsData} snapshot that records how many bytes of the results
+ * it covers. Appending a match applies just that match; leaderboards read only the snapshot. Records
+ * appended by another process are picked up from the snapshot's offset. Writers on the same directory
+ * are serialised with a file lock.
+ */
+public class ResultStore {
+    public static final String RESULTS_FILE = "results.jsonl";
+    public static final String RATINGS_FILE = "ratings.json";
+
+    private final Path resultsFile;
+    private final Path ratingsFile;
+    private final Path lockFile;
+    private final Gson gson = new Gson();
+    private RatingsData ratings;
+
+    public ResultStore(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        this.resultsFile = dir.resolve(RESULTS_FILE);
+        this.ratingsFile = dir.resolve(RATINGS_FILE);
+        this.lockFile = dir.resolve(".lock");
+    }
+
+    public synchronized void append(MatchResultData result) throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            lockChannel.lock(); // released when the channel closes
+            catchUp();
+            String json = gson.toJson(result) + "\n";
+            long size = Files.exists(resultsFile) ? Files.size(resultsFile) : 0;
+            if (size > ratings.resultsBytes) {
+                // A torn record from a crashed writer; start ours on a fresh line
+                json = "\n" + json;
+            }
+            byte[] line = json.getBytes(StandardCharsets.UTF_8);
+            try (FileChannel out = FileChannel.open(resultsFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            EloRatings.apply(ratings, result);
+            ratings.resultsBytes = size + line.length;
+            saveRatings();
+        }
+    }
+
+    /**
+     * Current ratings, including matches other processes appended since the last call
+     */
+    public synchronized RatingsData getRatings() throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            lockChannel.lock(); // released when the channel closes
+            if (catchUp()) {
+                saveRatings();
+            }
+            return ratings;
+        }
+    }
+
+    /**
+     * Players by rating, best first
+     */
+    public List<Map.Entry<String, RatingsData.RatingEntry>> getLeaderboard() throws IOException {
+        List<Map.Entry<String, RatingsData.RatingEntry>> board = new ArrayList<>(getRatings().players.entrySet());
+        board.sort((a, b) -> Double.compare(b.getValue().rating, a.getValue().rating));
+        return board;
+    }
+
+    public void printLeaderboard(int top) throws IOException {
+        List<Map.Entry<String, RatingsData.RatingEntry>> board = getLeaderboard();
+        System.out.println("Leaderboard after " + ratings.matches + " matches:");
+        for (int i = 0; i < Math.min(top, board.size()); i++) {
+            RatingsData.RatingEntry entry = board.get(i).getValue();
+            System.out.printf("%3d. %-40s %7.1f  (%d matches: %d W / %d D / %d L)%n", i + 1, board.get(i).getKey(),
+                    entry.rating, entry.matches, entry.wins, entry.draws, entry.losses);
+        }
+    }
+
+    /**
+     * Apply results past the snapshot's offset
+     *
+     * @return whether anything was applied
+     */
+    private boolean catchUp() throws IOException {
+        if (ratings == null) {
+            ratings = loadRatings();
+        }
+        long size = Files.exists(resultsFile) ? Files.size(resultsFile) : 0;
+        if (ratings.resultsBytes > size) {
+            System.err.println("Results file is shorter than the ratings snapshot, rebuilding ratings");
+            ratings = new RatingsData();
+        }
+        if (ratings.resultsBytes == size) {
+            return false;
+        }
+
+        try (FileChannel in = FileChannel.open(resultsFile, StandardOpenOption.READ)) {
+            in.position(ratings.resultsBytes);
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(in), StandardCharsets.UTF_8), 1 << 16);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                long next = ratings.resultsBytes + line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (next > size) {
+                    break; // Last record without its newline is still being written
+                }
+                if (!line.isBlank()) {
+                    try {
+                        EloRatings.apply(ratings, gson.fromJson(line, MatchResultData.class));
+                    } catch (JsonSyntaxException e) {
+                        System.err.println("Skipping corrupt result record: " + e.getMessage());
+                    }
+                }
+                ratings.resultsBytes = next;
+            }
+        }
+        return true;
+    }
+
+    private RatingsData loadRatings() throws IOException {
+        if (!Files.exists(ratingsFile)) {
+            return new RatingsData();
+        }
+        try (Reader reader = Files.newBufferedReader(ratingsFile)) {
+            RatingsData loaded = gson.fromJson(reader, RatingsData.class);
+            return loaded != null ? loaded : new RatingsData();
+        } catch (JsonSyntaxException e) {
+            System.err.println("Ratings snapshot is corrupt, rebuilding: " + e.getMessage());
+            return new RatingsData();
+        }
+    }
+
+    private void saveRatings() throws IOException {
+        Path temp = ratingsFile.resolveSibling(RATINGS_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            gson.toJson(ratings, writer);
+        }
+        Files.move(temp, ratingsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,388 @@
+package net.simplehardware.engine.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.simplehardware.engine.core.BotConnection;
+import net.simplehardware.engine.core.GameEngine;
+import net.simplehardware.engine.core.LaunchProfiles;
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.engine.results.ResultStore;
+import net.simplehardware.models.MatchLogData;
+import net.simplehardware.models.MatchResultData;
+import net.simplehardware.models.MatchSpecData;
+import net.simplehardware.models.MatchStatusData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs submitted matches in one long-lived JVM, so every match after the first finds the engine
+ * loaded and JIT-compiled. Matches are queued and played on a fixed pool of threads; each engine
+ * writes its report to its own buffer.
+ * <p>
+ * HTTP API, JSON bodies:
+ * <ul>
+ * <li>{@code POST /matches} with a {@link MatchSpecData} queues a match, {@code ?wait} answers once it is done</li>
+ * <li>{@code GET /matches/<id>} returns its {@link MatchStatusData}</li>
+ * <li>{@code GET /matches/<id>/log} returns the action log, the replay handle for {@code --resimulate}</li>
+ * <li>{@code GET /matches/<id>/output} returns the engine report as text</li>
+ * <li>{@code GET /leaderboard} returns the ratings when a result store is configured</li>
+ * </ul>
+ */
+public class MatchServer {
+    private static final int KEEP_FINISHED = 1000;
+    private static final int MAX_OUTPUT_BYTES = 1 << 20; // engine report kept per match
+
+    private final HttpServer http;
+    private final ThreadPoolExecutor pool;
+    private final ResultStore results;
+    private final LaunchProfiles launchProfiles;
+    private final Gson gson = new Gson();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Map<String, Job> jobs = new LinkedHashMap<>(); // in submission order
+
+    public MatchServer(InetSocketAddress address, int threads, int queueSize, ResultStore results,
+            LaunchProfiles launchProfiles) throws IOException {
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize));
+        this.results = results;
+        this.launchProfiles = launchProfiles;
+        this.http = HttpServer.create(address, 0);
+        // Waiting requests only park, so they get cheap threads
+        this.http.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public static void main(String[] args) {
+        String host = "127.0.0.1";
+        int port = 7080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueSize = 100;
+        String resultsPath = null;
+        String launchProfilesPath = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (args[i].startsWith("--") && value == null) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--host" -> host = args[++i];
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--queue" -> queueSize = Integer.parseInt(args[++i]);
+                    case "--results" -> resultsPath = args[++i];
+                    case "--launch-profiles" -> launchProfilesPath = args[++i];
+                    default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+                }
+            }
+            if (threads < 1 || queueSize < 1) {
+                throw new IllegalArgumentException("--threads and --queue must be at least 1");
+            }
+
+            MatchServer server = new MatchServer(new InetSocketAddress(host, port), threads, queueSize,
+                    resultsPath != null ? new ResultStore(Path.of(resultsPath)) : null,
+                    launchProfilesPath != null ? LaunchProfiles.load(launchProfilesPath) : LaunchProfiles.DEFAULT);
+            server.start();
+            System.out.println("Match server listening on " + host + ":" + port + " with " + threads
+                    + " threads and room for " + queueSize + " queued matches");
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -cp MazeEngine.jar net.simplehardware.engine.server.MatchServer"
+                    + " [--host <address>] [--port <n>] [--threads <n>] [--queue <n>] [--results <dir>]"
+                    + " [--launch-profiles <file>]");
+            System.exit(1);
+        }
+    }
+
+    public void start() {
+        http.createContext("/matches", this::handleMatches);
+        http.createContext("/leaderboard", this::handleLeaderboard);
+        http.start();
+    }
+
+    /**
+     * Stop accepting requests and let running matches finish
+     */
+    public void stop() throws InterruptedException {
+        http.stop(0);
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Queue a match
+     *
+     * @throws IllegalArgumentException if the match refers to missing files
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public MatchStatusData submit(MatchSpecData spec) {
+        validate(spec);
+        Job job = new Job(String.valueOf(nextId.getAndIncrement()), spec);
+        synchronized (jobs) {
+            evictFinished();
+            jobs.put(job.id, job);
+        }
+        try {
+            pool.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            throw e;
+        }
+        return job.status();
+    }
+
+    /**
+     * Forget the oldest finished jobs beyond {@link #KEEP_FINISHED}, wherever they are behind running ones
+     */
+    private void evictFinished() {
+        int finished = 0;
+        for (Job job : jobs.values()) {
+            if (job.isFinished()) {
+                finished++;
+            }
+        }
+        Iterator<Job> it = jobs.values().iterator();
+        while (finished > KEEP_FINISHED && it.hasNext()) {
+            if (it.next().isFinished()) {
+                it.remove();
+                finished--;
+            }
+        }
+    }
+
+    private void validate(MatchSpecData spec) {
+        if (spec == null || spec.mazeFile == null || spec.players == null || spec.players.isEmpty()) {
+            throw new IllegalArgumentException("A match needs mazeFile and players");
+        }
+        if (!Files.isRegularFile(Path.of(spec.mazeFile))) {
+            throw new IllegalArgumentException("Maze not found: " + spec.mazeFile);
+        }
+        for (String player : spec.players) {
+            if (!player.startsWith(BotConnection.PREFIX) && !Files.isRegularFile(Path.of(player))) {
+                throw new IllegalArgumentException("Player not found: " + player);
+            }
+        }
+    }
+
+    private void run(Job job) {
+        job.state = "RUNNING";
+        try {
+            job.result = play(job);
+            if (results != null) {
+                try {
+                    results.append(job.result);
+                } catch (IOException e) {
+                    System.err.println("Could not store result of match " + job.id + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            // Also after an Error, so nobody waits for the match forever
+            job.state = job.result != null && job.result.error == null ? "DONE" : "FAILED";
+            job.done.countDown();
+        }
+    }
+
+    private MatchResultData play(Job job) {
+        long start = System.nanoTime();
+        PrintStream report = new PrintStream(job.output, true, StandardCharsets.UTF_8);
+        MatchResultData result;
+        try {
+            GameEngine.GameConfig config = GameEngine.GameConfig.of(job.spec);
+            config.turnInfo = 0;
+            config.logging = 0;
+            config.report = false;
+            config.out = report;
+            config.err = report;
+            config.launchProfiles = launchProfiles;
+
+            GameEngine engine = new GameEngine(Maze.load(job.spec.mazeFile), job.spec.players, config);
+            engine.initialize();
+            engine.runGame();
+            job.log = engine.getMatchLog();
+            job.log.mazeFile = job.spec.mazeFile;
+            result = engine.getResult();
+        } catch (RuntimeException | IOException e) {
+            e.printStackTrace(report);
+            result = new MatchResultData();
+            result.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        result.matchId = job.id;
+        result.mazeFile = job.spec.mazeFile;
+        result.worker = "server";
+        result.durationMs = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    private void handleMatches(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            String method = exchange.getRequestMethod();
+
+            // "/matches" splits to ["", "matches"]
+            if (parts.length == 2 && "POST".equals(method)) {
+                MatchSpecData spec;
+                try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                    spec = gson.fromJson(reader, MatchSpecData.class);
+                } catch (JsonParseException e) {
+                    sendError(exchange, 400, "Invalid match: " + e.getMessage());
+                    return;
+                }
+                MatchStatusData status;
+                try {
+                    status = submit(spec);
+                } catch (IllegalArgumentException e) {
+                    sendError(exchange, 400, e.getMessage());
+                    return;
+                } catch (RejectedExecutionException e) {
+                    sendError(exchange, 503, "Match queue is full");
+                    return;
+                }
+                String query = exchange.getRequestURI().getQuery();
+                if (query != null && query.contains("wait")) {
+                    Job job = find(status.id);
+                    job.done.await();
+                    status = job.status();
+                }
+                sendJson(exchange, status.result != null ? 200 : 202, status);
+                return;
+            }
+            if ((parts.length == 3 || parts.length == 4) && "GET".equals(method)) {
+                Job job = find(parts[2]);
+                if (job == null) {
+                    sendError(exchange, 404, "Unknown match " + parts[2]);
+                } else if (parts.length == 3) {
+                    sendJson(exchange, 200, job.status());
+                } else if ("log".equals(parts[3]) && job.log != null) {
+                    sendJson(exchange, 200, job.log);
+                } else if ("output".equals(parts[3]) && job.isFinished()) {
+                    send(exchange, 200, "text/plain; charset=utf-8", job.output.bytes());
+                } else {
+                    sendError(exchange, 404, "Not available for match " + job.id);
+                }
+                return;
+            }
+            sendError(exchange, 405, method + " " + exchange.getRequestURI().getPath() + " is not supported");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleLeaderboard(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (results == null) {
+                sendError(exchange, 404, "Server runs without a result store");
+                return;
+            }
+            sendJson(exchange, 200, results.getRatings());
+        }
+    }
+
+    private Job find(String id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int code, String message) throws IOException {
+        MatchStatusData status = new MatchStatusData();
+        status.error = message;
+        sendJson(exchange, code, status);
+    }
+
+    private void sendJson(HttpExchange exchange, int code, Object body) throws IOException {
+        send(exchange, code, "application/json", gson.toJson(body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int code, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static class Job {
+        final String id;
+        final MatchSpecData spec;
+        final Output output = new Output();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile String state = "QUEUED";
+        volatile MatchResultData result;
+        volatile MatchLogData log;
+
+        Job(String id, MatchSpecData spec) {
+            this.id = id;
+            this.spec = spec;
+        }
+
+        boolean isFinished() {
+            return done.getCount() == 0;
+        }
+
+        MatchStatusData status() {
+            MatchStatusData status = new MatchStatusData();
+            status.id = id;
+            status.status = state;
+            status.result = result;
+            if (log != null) {
+                status.replay = "/matches/" + id + "/log";
+            }
+            status.output = "/matches/" + id + "/output";
+            return status;
+        }
+    }
+
+    /**
+     * Engine report of a job, cut off after {@link #MAX_OUTPUT_BYTES}
+     */
+    private static final class Output extends ByteArrayOutputStream {
+        private boolean truncated;
+
+        @Override
+        public synchronized void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            int kept = Math.max(0, Math.min(length, MAX_OUTPUT_BYTES - count));
+            super.write(bytes, offset, kept);
+            truncated |= kept < length;
+        }
+
+        synchronized byte[] bytes() {
+            if (truncated) {
+                byte[] note = ("\n[report cut off after " + MAX_OUTPUT_BYTES + " bytes]\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                byte[] text = Arrays.copyOf(buf, count + note.length);
+                System.arraycopy(note, 0, text, count, note.length);
+                return text;
+            }
+            return toByteArray();
+        }
+    }
+}
@@ -9,21 +9,35 @@ import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 
 /**
- * Swing GUI for visualizing game execution with timeline controls
+ * Swing GUI for visualizing game execution with timeline controls.
+ * Either shows a finished game, possibly read turn by turn from a replay file, or follows a running
+ * one through a feed of states.
  */
-public class GameViewer extends JFrame {
-    private final List<GameState> gameHistory;
+public final class GameViewer extends JFrame {
+    private static final int FEED_INTERVAL_MS = 50;
+
+    private final HistorySource gameHistory;
     private int currentTurnIndex = 0;
+    private int shownSize; // turns on the timeline, which grows while following a game
 
     private MazePanel mazePanel;
     private JSlider timelineSlider;
     private JLabel turnLabel;
     private JPanel playerStatsPanel;
 
+    // Only one page of log panels exists; paging swaps which players they show
+    private static final int LOG_SLOTS = 4;
+    private final JPanel[] logSlotPanels = new JPanel[LOG_SLOTS];
+    private final JTextArea[] stdoutAreas = new JTextArea[LOG_SLOTS];
+    private final JTextArea[] stderrAreas = new JTextArea[LOG_SLOTS];
+    private int logPage = 0;
+
     private static int CELL_SIZE = 80;
     private static final Color[] PLAYER_COLORS = {
             new Color(255, 100, 100), // Player 1 - Red
@@ -32,6 +46,16 @@ public class GameViewer extends JFrame {
             new Color(255, 255, 100) // Player 4 - Yellow
     };
 
+    /**
+     * Player colour; players beyond the fixed palette get evenly spread hues
+     */
+    private static Color playerColor(int playerId) {
+        if (playerId >= 1 && playerId <= PLAYER_COLORS.length) {
+            return PLAYER_COLORS[playerId - 1];
+        }
+        return Color.getHSBColor((playerId * 0.618034f) % 1f, 0.6f, 1f);
+    }
+
     // Dark theme colors
     private static final Color BG_DARK = new Color(40, 44, 52);
     private static final Color BG_DARKER = new Color(30, 34, 42);
@@ -39,16 +63,78 @@ public class GameViewer extends JFrame {
     private static final Color BORDER_COLOR = new Color(60, 64, 72);
 
     public GameViewer(List<GameState> gameHistory, String mazeName) {
+        this(HistorySource.of(gameHistory), mazeName);
+    }
+
+    /**
+     * Show turns looked up one at a time, such as a {@code ReplayFile}
+     */
+    public GameViewer(HistorySource gameHistory, String mazeName) {
+        this(gameHistory, mazeName, false);
+    }
+
+    /**
+     * Spectate a running game. The engine thread only enqueues states; they are drained here on the
+     * event dispatch thread, and the timeline follows the newest turn unless moved back.
+     */
+    public GameViewer(Queue<GameState> feed, String mazeName) {
+        this(draining(feed), mazeName, true);
+    }
+
+    /**
+     * Spectate a running game through a history the engine thread appends to, such as an
+     * {@code OffHeapHistory}; it must be safe to read from the event dispatch thread
+     */
+    public static GameViewer follow(HistorySource growingHistory, String mazeName) {
+        return new GameViewer(growingHistory, mazeName, true);
+    }
+
+    private GameViewer(HistorySource gameHistory, String mazeName, boolean following) {
         super("Maze Runner - " + mazeName);
         this.gameHistory = gameHistory;
 
-        if (gameHistory.isEmpty()) {
+        if (following) {
+            JLabel waiting = new JLabel("Waiting for the game to start...", SwingConstants.CENTER);
+            waiting.setForeground(FG_LIGHT);
+            add(waiting);
+            showFrame();
+            new Timer(FEED_INTERVAL_MS, e -> extendTimeline()).start();
+            return;
+        }
+
+        shownSize = gameHistory.size();
+        if (shownSize == 0) {
             throw new IllegalArgumentException("Game history is empty");
         }
 
         initializeUI();
         updateDisplay();
+        showFrame();
+    }
+
+    /**
+     * History that takes in whatever the feed holds each time its size is asked for
+     */
+    private static HistorySource draining(Queue<GameState> feed) {
+        List<GameState> states = new ArrayList<>();
+        return new HistorySource() {
+            @Override
+            public int size() {
+                GameState state;
+                while ((state = feed.poll()) != null) {
+                    states.add(state);
+                }
+                return states.size();
+            }
 
+            @Override
+            public GameState get(int index) {
+                return states.get(index);
+            }
+        };
+    }
+
+    private void showFrame() {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setMinimumSize(new Dimension(1650, 1000));
         setLocationRelativeTo(null);
@@ -59,6 +145,33 @@ public class GameViewer extends JFrame {
         setVisible(true);
     }
 
+    private void extendTimeline() {
+        boolean following = currentTurnIndex == shownSize - 1;
+        int previousSize = shownSize;
+        shownSize = gameHistory.size();
+        if (shownSize == previousSize) {
+            return;
+        }
+
+        if (previousSize == 0) {
+            getContentPane().removeAll();
+            initializeUI();
+            revalidate();
+            following = true;
+        } else {
+            timelineSlider.setMaximum(shownSize - 1);
+            int spacing = Math.max(1, shownSize / 10);
+            timelineSlider.setMajorTickSpacing(spacing);
+            timelineSlider.setLabelTable(timelineSlider.createStandardLabels(spacing));
+        }
+
+        if (following && timelineSlider.getValue() != shownSize - 1) {
+            timelineSlider.setValue(shownSize - 1); // Updates the display
+        } else {
+            updateDisplay();
+        }
+    }
+
     private void initializeUI() {
         setLayout(new BorderLayout(10, 10));
         getContentPane().setBackground(BG_DARK);
@@ -73,7 +186,7 @@ public class GameViewer extends JFrame {
         add(topPanel, BorderLayout.NORTH);
 
         // Left - Maze grid
-        GameState firstState = gameHistory.getFirst();
+        GameState firstState = gameHistory.get(0);
         mazePanel = new MazePanel(firstState.getMazeWidth(), firstState.getMazeHeight());
         mazePanel.setBackground(BG_DARK);
         JScrollPane scrollPane = new JScrollPane(mazePanel);
@@ -96,11 +209,17 @@ public class GameViewer extends JFrame {
                 javax.swing.border.TitledBorder.TOP,
                 new Font("Arial", Font.BOLD, 12),
                 FG_LIGHT));
-        playerStatsPanel.setLayout(new FlowLayout());
+        playerStatsPanel.setLayout(new FlowLayout(FlowLayout.LEFT));
 
         playerStatsPanel.setBackground(BG_DARK);
-        playerStatsPanel.setPreferredSize(new Dimension(0, 150));
-        rightPanel.add(playerStatsPanel, BorderLayout.NORTH);
+
+        // Many players scroll sideways instead of being clipped
+        JScrollPane statsScroll = new JScrollPane(playerStatsPanel,
+                JScrollPane.VERTICAL_SCROLLBAR_NEVER, JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        statsScroll.setBorder(BorderFactory.createEmptyBorder());
+        statsScroll.getViewport().setBackground(BG_DARK);
+        statsScroll.setPreferredSize(new Dimension(0, 150));
+        rightPanel.add(statsScroll, BorderLayout.NORTH);
 
         // Player logs panel (2x2 grid)
         GridLayout layout = new GridLayout(2, 2, 10, 10);
@@ -110,21 +229,33 @@ public class GameViewer extends JFrame {
         logsPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         logsPanel.setBackground(BG_DARK);
 
-        // Create log panels for each player
-        int numPlayers = firstState.getPlayers().size();
-        for (int i = 1; i <= numPlayers; i++) {
-            JPanel playerLogPanel = createPlayerLogPanel(i);
-            logsPanel.add(playerLogPanel);
+        for (int slot = 0; slot < LOG_SLOTS; slot++) {
+            logSlotPanels[slot] = createPlayerLogPanel(slot);
+            logsPanel.add(logSlotPanels[slot]);
         }
 
-        // Fill empty slots if less than 4 players
-        for (int i = numPlayers; i < 4; i++) {
-            JPanel panel = new JPanel();
-            panel.setBackground(BG_DARK);
-            logsPanel.add(panel);
+        JPanel logsContainer = new JPanel(new BorderLayout());
+        logsContainer.setBackground(BG_DARK);
+        logsContainer.add(logsPanel, BorderLayout.CENTER);
+
+        // Page selector when there are more players than log panels
+        int numPlayers = firstState.getPlayers().size();
+        int pages = (numPlayers + LOG_SLOTS - 1) / LOG_SLOTS;
+        if (pages > 1) {
+            String[] pageNames = new String[pages];
+            for (int page = 0; page < pages; page++) {
+                pageNames[page] = "Players " + (page * LOG_SLOTS + 1) + "-"
+                        + Math.min(numPlayers, (page + 1) * LOG_SLOTS);
+            }
+            JComboBox<String> pageSelector = new JComboBox<>(pageNames);
+            pageSelector.addActionListener(e -> {
+                logPage = pageSelector.getSelectedIndex();
+                updatePlayerLogs(gameHistory.get(currentTurnIndex));
+            });
+            logsContainer.add(pageSelector, BorderLayout.NORTH);
         }
 
-        rightPanel.add(logsPanel, BorderLayout.CENTER);
+        rightPanel.add(logsContainer, BorderLayout.CENTER);
         add(rightPanel, BorderLayout.EAST);
 
         // Bottom - Timeline controls
@@ -132,10 +263,10 @@ public class GameViewer extends JFrame {
         bottomPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         bottomPanel.setBackground(BG_DARK);
 
-        timelineSlider = new JSlider(0, gameHistory.size() - 1, 0);
+        timelineSlider = new JSlider(0, shownSize - 1, 0);
         timelineSlider.setBackground(BG_DARK);
         timelineSlider.setForeground(FG_LIGHT);
-        timelineSlider.setMajorTickSpacing(Math.max(1, gameHistory.size() / 10));
+        timelineSlider.setMajorTickSpacing(Math.max(1, shownSize / 10));
         timelineSlider.setMinorTickSpacing(1);
         timelineSlider.setPaintTicks(true);
         timelineSlider.setPaintLabels(true);
@@ -155,15 +286,8 @@ public class GameViewer extends JFrame {
         add(bottomPanel, BorderLayout.SOUTH);
     }
 
-    private JPanel createPlayerLogPanel(int playerId) {
+    private JPanel createPlayerLogPanel(int slot) {
         JPanel panel = new JPanel(new BorderLayout(5, 5));
-        panel.setBorder(BorderFactory.createTitledBorder(
-                BorderFactory.createLineBorder(PLAYER_COLORS[playerId - 1], 2),
-                "Player " + playerId,
-                TitledBorder.LEFT,
-                TitledBorder.TOP,
-                new Font("Arial", Font.BOLD, 12),
-                PLAYER_COLORS[playerId - 1]));
         panel.setBackground(new Color(40, 44, 52));
 
         // Create areas
@@ -212,8 +336,8 @@ public class GameViewer extends JFrame {
         panel.add(logsContainer, BorderLayout.CENTER);
 
         // Store references
-        stdoutArea.setName("stdout_" + playerId);
-        stderrArea.setName("stderr_" + playerId);
+        stdoutAreas[slot] = stdoutArea;
+        stderrAreas[slot] = stderrArea;
 
         return panel;
     }
@@ -243,7 +367,7 @@ public class GameViewer extends JFrame {
 
         // Update turn label
         turnLabel.setText(String.format("Turn %d / %d",
-                state.getTurnNumber(), gameHistory.getLast().getTurnNumber()));
+                state.getTurnNumber(), gameHistory.get(shownSize - 1).getTurnNumber()));
 
         // Update maze panel
         mazePanel.setState(state);
@@ -258,37 +382,29 @@ public class GameViewer extends JFrame {
 
     private void updatePlayerLogs(GameState state) {
         Map<Integer, PlayerLog> logs = state.getPlayerLogs();
-
-        // Find all log text areas and update them
-        for (Component comp : getContentPane().getComponents()) {
-            updateLogComponents(comp, logs);
-        }
-    }
-
-    private void updateLogComponents(Component comp, Map<Integer, PlayerLog> logs) {
-        if (comp instanceof JTextArea textArea) {
-            String name = textArea.getName();
-            if (name != null && name.startsWith("std")) {
-                String[] parts = name.split("_");
-                if (parts.length == 2) {
-                    int playerId = Integer.parseInt(parts[1]);
-                    PlayerLog log = logs.get(playerId);
-                    if (log != null) {
-                        if (name.startsWith("stdout")) {
-                            textArea.setText(log.stdout());
-                        } else if (name.startsWith("stderr")) {
-                            textArea.setText(log.stderr());
-                        }
-                    } else {
-                        textArea.setText("");
-                    }
-                    textArea.setCaretPosition(0);
-                }
-            }
-        } else if (comp instanceof Container container) {
-            for (Component child : container.getComponents()) {
-                updateLogComponents(child, logs);
+        int numPlayers = state.getPlayers().size();
+
+        for (int slot = 0; slot < LOG_SLOTS; slot++) {
+            int playerId = logPage * LOG_SLOTS + slot + 1;
+            JPanel panel = logSlotPanels[slot];
+            panel.setVisible(playerId <= numPlayers);
+            if (playerId > numPlayers) {
+                continue;
             }
+
+            panel.setBorder(BorderFactory.createTitledBorder(
+                    BorderFactory.createLineBorder(playerColor(playerId), 2),
+                    "Player " + playerId,
+                    TitledBorder.LEFT,
+                    TitledBorder.TOP,
+                    new Font("Arial", Font.BOLD, 12),
+                    playerColor(playerId)));
+
+            PlayerLog log = logs.get(playerId);
+            stdoutAreas[slot].setText(log != null ? log.stdout() : "");
+            stderrAreas[slot].setText(log != null ? log.stderr() : "");
+            stdoutAreas[slot].setCaretPosition(0);
+            stderrAreas[slot].setCaretPosition(0);
         }
     }
 
@@ -298,12 +414,12 @@ public class GameViewer extends JFrame {
         for (GameState.PlayerSnapshot player : state.getPlayers().values()) {
             JPanel playerPanel = new JPanel();
             playerPanel.setLayout(new BoxLayout(playerPanel, BoxLayout.Y_AXIS));
-            playerPanel.setBorder(BorderFactory.createLineBorder(PLAYER_COLORS[player.id() - 1], 2));
+            playerPanel.setBorder(BorderFactory.createLineBorder(playerColor(player.id()), 2));
             playerPanel.setBackground(BG_DARKER);
 
             JLabel nameLabel = new JLabel("Player " + player.id());
             nameLabel.setFont(new Font("Arial", Font.BOLD, 14));
-            nameLabel.setForeground(PLAYER_COLORS[player.id() - 1]);
+            nameLabel.setForeground(playerColor(player.id()));
 
             JLabel scoreLabel = new JLabel("Score: " + player.score());
             scoreLabel.setForeground(FG_LIGHT);
@@ -384,7 +500,7 @@ public class GameViewer extends JFrame {
                     bgColor = new Color(120, 20, 20);
                     break;
                 case FINISH:
-                    bgColor = PLAYER_COLORS[cell.finishPlayerId() - 1].darker();
+                    bgColor = playerColor(cell.finishPlayerId()).darker();
                     break;
                 case FLOOR:
                 default:
@@ -460,7 +576,7 @@ public class GameViewer extends JFrame {
             int py = player.y() * CELL_SIZE;
 
             // Draw player circle
-            g2d.setColor(PLAYER_COLORS[player.id() - 1]);
+            g2d.setColor(playerColor(player.id()));
             int margin = 2;
             g2d.fillOval(px + margin, py + margin, CELL_SIZE - 2 * margin, CELL_SIZE - 2 * margin);
 
@@ -0,0 +1,29 @@
+package net.simplehardware.engine.viewer;
+
+import net.simplehardware.engine.viewer.elements.GameState;
+
+import java.util.List;
+
+/**
+ * The turns shown by the {@link GameViewer}, looked up by index so they need not all be in memory
+ */
+public interface HistorySource {
+
+    int size();
+
+    GameState get(int index);
+
+    static HistorySource of(List<GameState> states) {
+        return new HistorySource() {
+            @Override
+            public int size() {
+                return states.size();
+            }
+
+            @Override
+            public GameState get(int index) {
+                return states.get(index);
+            }
+        };
+    }
+}
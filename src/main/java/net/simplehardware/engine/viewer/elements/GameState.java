@@ -19,15 +19,17 @@ public class GameState implements Serializable {
     private final int turnNumber;
     private final int mazeWidth;
     private final int mazeHeight;
+    private final long stateHash;
     private final Map<Integer, PlayerSnapshot> players;
     private final CellSnapshot[][] cells;
     private final Map<Integer, PlayerLog> playerLogs;
 
-    public GameState(int turnNumber, int mazeWidth, int mazeHeight,
+    public GameState(int turnNumber, int mazeWidth, int mazeHeight, long stateHash,
             List<Player> playerList, Cell[][] cellGrid, Map<Integer, PlayerLog> playerLogs) {
         this.turnNumber = turnNumber;
         this.mazeWidth = mazeWidth;
         this.mazeHeight = mazeHeight;
+        this.stateHash = stateHash;
         this.players = new HashMap<>();
 
         // Snapshot players
@@ -55,6 +57,20 @@ public class GameState implements Serializable {
         this.playerLogs = playerLogs != null ? new HashMap<>(playerLogs) : new HashMap<>();
     }
 
+    /**
+     * State read back from snapshots, as stored in a replay
+     */
+    public GameState(int turnNumber, int mazeWidth, int mazeHeight, long stateHash,
+            Map<Integer, PlayerSnapshot> players, CellSnapshot[][] cells, Map<Integer, PlayerLog> playerLogs) {
+        this.turnNumber = turnNumber;
+        this.mazeWidth = mazeWidth;
+        this.mazeHeight = mazeHeight;
+        this.stateHash = stateHash;
+        this.players = players;
+        this.cells = cells;
+        this.playerLogs = playerLogs;
+    }
+
     public int getTurnNumber() {
         return turnNumber;
     }
@@ -67,6 +83,13 @@ public class GameState implements Serializable {
         return mazeHeight;
     }
 
+    /**
+     * The referee's hash of the state, see {@link net.simplehardware.engine.game.StateHash}; 0 if none was kept
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+
     public Map<Integer, PlayerSnapshot> getPlayers() {
         return players;
     }
@@ -0,0 +1,28 @@
+package net.simplehardware.engine.viewer.elements;
+
+/**
+ * Text of a player log, either held in memory or read from a log segment when it is needed
+ */
+public interface LogText {
+    LogText EMPTY = of("");
+
+    String load();
+
+    boolean isEmpty();
+
+    static LogText of(String text) {
+        return new Inline(text != null ? text : "");
+    }
+
+    record Inline(String text) implements LogText {
+        @Override
+        public String load() {
+            return text;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return text.isEmpty();
+        }
+    }
+}
@@ -1,17 +1,56 @@
 package net.simplehardware.engine.viewer.elements;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
 
 /**
- * Player log data for a specific turn
+ * Player log data for a specific turn. Text stored in a log segment is only read when asked for.
+ * It is serialized as the loaded text, since the segment it may point into does not outlive the match.
  */
-public record PlayerLog(String stdout, String stderr) implements Serializable {
+public final class PlayerLog implements Serializable {
     @Serial
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
+
+    private final transient LogText stdout;
+    private final transient LogText stderr;
 
     public PlayerLog(String stdout, String stderr) {
-        this.stdout = stdout != null ? stdout : "";
-        this.stderr = stderr != null ? stderr : "";
+        this(LogText.of(stdout), LogText.of(stderr));
+    }
+
+    public PlayerLog(LogText stdout, LogText stderr) {
+        this.stdout = stdout != null ? stdout : LogText.EMPTY;
+        this.stderr = stderr != null ? stderr : LogText.EMPTY;
+    }
+
+    public String stdout() {
+        return stdout.load();
+    }
+
+    public String stderr() {
+        return stderr.load();
+    }
+
+    public boolean hasStderr() {
+        return !stderr.isEmpty();
+    }
+
+    @Serial
+    private Object writeReplace() {
+        return new Loaded(stdout(), stderr());
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("PlayerLog is read through its loaded text");
+    }
+
+    private record Loaded(String stdout, String stderr) implements Serializable {
+        @Serial
+        private Object readResolve() {
+            return new PlayerLog(stdout, stderr);
+        }
     }
 }
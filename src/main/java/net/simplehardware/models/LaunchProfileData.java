@@ -0,0 +1,31 @@
+package net.simplehardware.models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JVM launch settings for player JARs, read from a launch profiles JSON file.
+ * Unset fields fall back to {@link #defaults}, then to a bare {@code java -jar}.
+ */
+public class LaunchProfileData {
+
+    public Profile defaults = new Profile();
+    public Map<String, Profile> bots = new HashMap<>(); // keyed by JAR path or file name
+    public String cdsCacheDir = ".cds-cache";
+
+    public static class Profile {
+        public String javaCommand;
+        public String initialHeap; // e.g. "32m"
+        public String maxHeap;
+        public String gc; // e.g. "Serial" for -XX:+UseSerialGC
+        public Integer tieredStopAtLevel;
+        public Boolean appCds;
+        public Boolean readySignal; // bot prints READY once it has read the start lines
+        public List<String> jvmArgs = new ArrayList<>();
+
+        public Profile() {
+        }
+    }
+}
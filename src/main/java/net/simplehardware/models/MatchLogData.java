@@ -0,0 +1,43 @@
+package net.simplehardware.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded match: the seed, the setup and every action in the order it reached the referee
+ */
+public class MatchLogData {
+
+    public String mazeFile;
+    public long seed;
+    public int leagueLevel;
+    public int maxTurns;
+    public int sheetsPerPlayer;
+    public boolean randomSpawn;
+    public int stallRounds;
+    public List<String> players = new ArrayList<>();
+    public List<Integer> failedPlayers = new ArrayList<>();
+    public List<ActionLogEntry> actions = new ArrayList<>();
+
+    /**
+     * One player move. A null action means the player sent an empty line.
+     */
+    public static class ActionLogEntry {
+        public int player;
+        public String action;
+        public boolean timeout;
+        // Resources of a JAR player for this turn, absent for in-process bots; CPU and memory only if sampled
+        public Long wallMicros;
+        public Long cpuMicros;
+        public Long rssKb;
+
+        public ActionLogEntry() {
+        }
+
+        public ActionLogEntry(int player, String action, boolean timeout) {
+            this.player = player;
+            this.action = action;
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package net.simplehardware.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of one match, as reported by a worker or a local run
+ */
+public class MatchResultData {
+
+    public String matchId;
+    public String mazeFile;
+    public long seed;
+    public String worker;
+    public long durationMs;
+    public int totalTurns;
+    public Integer winner; // player id, null on a tie
+    public String error; // set if the match could not be played
+    public List<PlayerResult> players = new ArrayList<>();
+
+    public static class PlayerResult {
+        public int id;
+        public String bot;
+        public int score;
+        public String status;
+        public int forms;
+        public int requiredForms;
+        public int turns;
+
+        public PlayerResult() {
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package net.simplehardware.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A match to be run by a worker. Files are referenced by the SHA-256 of their content so workers
+ * can cache them; {@code bot:} players are passed through and must be on the worker's classpath.
+ * Launch profiles are not part of a match: workers start every player JAR with plain {@code java}.
+ */
+public class MatchSpecData {
+
+    public String id;
+    public String mazeFile; // original path, its extension selects the maze loader
+    public String mazeHash;
+    public List<String> players = new ArrayList<>(); // original paths, for reporting
+    public List<String> playerHashes = new ArrayList<>(); // null for bot: players
+    public int leagueLevel = 5;
+    public int maxTurns = 150; // per player
+    public long turnTimeoutMs = 500;
+    public long firstTurnTimeoutMs = 1000;
+    public long timeBankMs = 0; // extra time per match a player may spend over its turn timeouts
+    public long startupTimeoutMs = 5000; // for JAR players to report ready, or extra on their first turn
+    public boolean cpuTimeouts; // judge JAR players by CPU time instead of wall time
+    public int sheetsPerPlayer = 2;
+    public int stallRounds = 0; // rounds repeating a recent game state that end the match, 0 for no limit
+    public boolean randomSpawn;
+    public Long seed;
+
+    public MatchSpecData() {
+    }
+}
@@ -0,0 +1,17 @@
+package net.simplehardware.models;
+
+/**
+ * State of a match submitted to the match server
+ */
+public class MatchStatusData {
+
+    public String id;
+    public String status; // QUEUED, RUNNING, DONE or FAILED
+    public MatchResultData result; // once DONE or FAILED
+    public String replay; // path of the action log, usable with --resimulate
+    public String output; // path of the engine report
+    public String error; // why the submission was rejected
+
+    public MatchStatusData() {
+    }
+}
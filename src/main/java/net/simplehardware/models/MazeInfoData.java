@@ -7,6 +7,7 @@ public class MazeInfoData {
     public String name;
     public List<FormInfo> forms;
     public String maze;
+    public int cellWidth; // characters per cell, 2 if absent; wider cells allow owners above 9
     public List<String> playerJars;
 }
 
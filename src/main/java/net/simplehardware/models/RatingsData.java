@@ -0,0 +1,26 @@
+package net.simplehardware.models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rating snapshot kept next to the results file. {@link #resultsBytes} is how much of the results
+ * file has been applied, so newer records can be applied without replaying the history.
+ */
+public class RatingsData {
+
+    public long resultsBytes;
+    public long matches;
+    public Map<String, RatingEntry> players = new HashMap<>(); // keyed by bot path or name
+
+    public static class RatingEntry {
+        public double rating = 1500;
+        public int matches;
+        public int wins;
+        public int draws;
+        public int losses;
+
+        public RatingEntry() {
+        }
+    }
+}
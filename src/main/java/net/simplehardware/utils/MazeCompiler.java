@@ -0,0 +1,113 @@
+package net.simplehardware.utils;
+
+import com.google.gson.Gson;
+import net.simplehardware.engine.game.CompiledMaze;
+import net.simplehardware.engine.game.Maze;
+import net.simplehardware.models.FormInfo;
+import net.simplehardware.models.MazeInfoData;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts a JSON maze into the memory-mappable {@link CompiledMaze} format
+ */
+public class MazeCompiler {
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: java -cp MazeEngine.jar net.simplehardware.utils.MazeCompiler <maze.json> <maze"
+                    + CompiledMaze.EXTENSION + ">");
+            System.exit(1);
+        }
+        try {
+            MazeInfoData data;
+            try (FileReader reader = new FileReader(args[0])) {
+                data = new Gson().fromJson(reader, MazeInfoData.class);
+            }
+            compile(data, Path.of(args[1]));
+            System.out.println("Wrote " + args[1]);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public static void compile(MazeInfoData data, Path out) throws IOException {
+        String[] rows = data.maze.split("/");
+        int cellWidth = data.cellWidth > 0 ? data.cellWidth : 2;
+        int height = rows.length;
+        int width = rows[0].length() / cellWidth;
+        List<FormInfo> forms = data.forms != null ? data.forms : List.of();
+
+        ByteBuffer header = ByteBuffer.allocate(1 << 16);
+        header.putInt(CompiledMaze.MAGIC).putInt(CompiledMaze.VERSION).putInt(width).putInt(height);
+        int offsetsPosition = header.position();
+        header.putLong(0).putLong(0);
+        putString(header, data.name != null ? data.name : "");
+        header.putInt(forms.size());
+        for (FormInfo form : forms) {
+            header.putChar(form.id);
+            putString(header, form.name != null ? form.name : "");
+        }
+        long cellsOffset = header.position();
+
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(cellsOffset);
+
+            List<int[]> specials = new ArrayList<>();
+            ByteBuffer row = ByteBuffer.allocate(width * CompiledMaze.CELL_BYTES);
+            for (int y = 0; y < height; y++) {
+                row.clear();
+                for (int x = 0; x < width; x++) {
+                    int charIndex = x * cellWidth;
+                    // Short rows are padded with walls
+                    char type = charIndex < rows[y].length() ? rows[y].charAt(charIndex) : '#';
+                    int owner = Maze.parseOwner(rows[y], charIndex + 1, charIndex + cellWidth);
+                    if (owner > 0xFFFF) {
+                        throw new IOException("Owner " + owner + " at (" + x + "," + y + ") is too large");
+                    }
+                    row.put((byte) type).putShort((short) owner);
+                    if (type != '#' && type != ' ') {
+                        specials.add(new int[] { x, y, type, owner });
+                    }
+                }
+                row.flip();
+                while (row.hasRemaining()) {
+                    channel.write(row);
+                }
+            }
+
+            long specialsOffset = channel.position();
+            ByteBuffer table = ByteBuffer.allocate(4 + specials.size() * CompiledMaze.SPECIAL_BYTES);
+            table.putInt(specials.size());
+            for (int[] special : specials) {
+                table.putInt(special[0]).putInt(special[1]).put((byte) special[2]).putShort((short) special[3]);
+            }
+            table.flip();
+            while (table.hasRemaining()) {
+                channel.write(table);
+            }
+
+            header.putLong(offsetsPosition, cellsOffset).putLong(offsetsPosition + 8, specialsOffset);
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+}
@@ -0,0 +1,264 @@
+package net.simplehardware.utils;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates random solvable mazes in the JSON format of the Mazes folder, for stress testing.
+ * Rooms sit on odd coordinates and are carved into a spanning tree, so every floor cell is
+ * reachable; the corridor density then knocks out extra walls to create loops.
+ */
+public class MazeGenerator {
+    public static final int MAX_SIZE = 10_000;
+    public static final int MAX_PLAYERS = 0xFFFF; // owners are stored as unsigned shorts once compiled
+    private static final String FORM_LETTERS = "ABCDEFGHIJKLMNOPQRTUVWXYZ"; // 'S' marks a sheet
+
+    private static final byte WALL = 0;
+    private static final byte FLOOR = 1;
+
+    private final int width;
+    private final int height;
+    private final double density;
+    private final int players;
+    private final int formsPerPlayer;
+    private final int sheets;
+    private final int cellWidth;
+    private final Random random;
+    private final byte[] grid;
+    private final Map<Integer, String> specials = new HashMap<>();
+
+    public MazeGenerator(int width, int height, double density, int players, int formsPerPlayer, int sheets,
+            long seed) {
+        if (width < 3 || height < 3 || width > MAX_SIZE || height > MAX_SIZE) {
+            throw new IllegalArgumentException("Size must be between 3 and " + MAX_SIZE);
+        }
+        if (density < 0 || density > 1) {
+            throw new IllegalArgumentException("Density must be between 0 and 1");
+        }
+        if (players < 1 || players > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Player count must be between 1 and " + MAX_PLAYERS);
+        }
+        if (formsPerPlayer < 0 || formsPerPlayer > FORM_LETTERS.length()) {
+            throw new IllegalArgumentException("Forms per player must be between 0 and " + FORM_LETTERS.length());
+        }
+        long rooms = (long) ((width - 1) / 2) * ((height - 1) / 2);
+        if ((long) players * (formsPerPlayer + 2) + sheets > rooms) {
+            throw new IllegalArgumentException("Maze too small for " + players + " players, "
+                    + formsPerPlayer + " forms each and " + sheets + " sheets");
+        }
+        this.width = width;
+        this.height = height;
+        this.density = density;
+        this.players = players;
+        this.formsPerPlayer = formsPerPlayer;
+        this.sheets = sheets;
+        // Two-character cells only fit single digit owners
+        this.cellWidth = players > 9 ? 1 + String.valueOf(players).length() : 2;
+        this.random = new Random(seed);
+        this.grid = new byte[width * height];
+    }
+
+    public static void main(String[] args) {
+        int width = 101, height = 101, players = 4, forms = 3, sheets = 0;
+        double density = 0.1;
+        long seed = new Random().nextLong();
+        String name = null;
+        String out = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (args[i].startsWith("--") && value == null) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--width" -> width = Integer.parseInt(args[++i]);
+                    case "--height" -> height = Integer.parseInt(args[++i]);
+                    case "--density" -> density = Double.parseDouble(args[++i]);
+                    case "--players" -> players = Integer.parseInt(args[++i]);
+                    case "--forms" -> forms = Integer.parseInt(args[++i]);
+                    case "--sheets" -> sheets = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--name" -> name = args[++i];
+                    case "--out" -> out = args[++i];
+                    default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+                }
+            }
+            if (out == null) {
+                throw new IllegalArgumentException("--out argument is required");
+            }
+            if (name == null) {
+                name = "Generated " + width + "x" + height + " #" + seed;
+            }
+
+            MazeGenerator generator = new MazeGenerator(width, height, density, players, forms, sheets, seed);
+            generator.generate();
+            try (Writer writer = new BufferedWriter(new FileWriter(out), 1 << 16)) {
+                generator.write(writer, name);
+            }
+            System.out.println("Wrote " + out + " (" + width + "x" + height + ", seed " + seed + ")");
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.out.println("Usage: java -cp MazeEngine.jar net.simplehardware.utils.MazeGenerator --out <file>"
+                    + " [--width <n>] [--height <n>] [--density <0..1>] [--players <n>] [--forms <n>]"
+                    + " [--sheets <n>] [--seed <long>] [--name <name>]");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Carve the maze and place starts, finishes, forms and sheets
+     */
+    public void generate() {
+        carve();
+        openLoops();
+        placeSpecials();
+    }
+
+    private void carve() {
+        int roomsX = (width - 1) / 2;
+        int roomsY = (height - 1) / 2;
+        int[] stack = new int[1024];
+        int size = 0;
+        int[] dirs = { 0, 1, 2, 3 };
+
+        int start = random.nextInt(roomsY) * roomsX + random.nextInt(roomsX);
+        open(start % roomsX, start / roomsX);
+        stack[size++] = start;
+
+        while (size > 0) {
+            int room = stack[size - 1];
+            int rx = room % roomsX;
+            int ry = room / roomsX;
+
+            shuffle(dirs);
+            boolean moved = false;
+            for (int dir : dirs) {
+                int nx = rx + (dir == 1 ? 1 : dir == 3 ? -1 : 0);
+                int ny = ry + (dir == 2 ? 1 : dir == 0 ? -1 : 0);
+                if (nx < 0 || nx >= roomsX || ny < 0 || ny >= roomsY || isOpen(nx, ny)) {
+                    continue;
+                }
+                // Knock down the wall between the two rooms
+                grid[(ry + ny + 1) * width + (rx + nx + 1)] = FLOOR;
+                open(nx, ny);
+                if (size == stack.length) {
+                    stack = Arrays.copyOf(stack, size * 2);
+                }
+                stack[size++] = ny * roomsX + nx;
+                moved = true;
+                break;
+            }
+            if (!moved) {
+                size--;
+            }
+        }
+    }
+
+    private void openLoops() {
+        if (density == 0) {
+            return;
+        }
+        // Walls between two rooms have exactly one odd coordinate
+        for (int y = 1; y < height - 1; y++) {
+            for (int x = 1; x < width - 1; x++) {
+                boolean between = (x % 2 == 0) != (y % 2 == 0);
+                if (!between || grid[y * width + x] != WALL) {
+                    continue;
+                }
+                boolean horizontal = x % 2 == 0 && x + 1 < width - 1;
+                boolean vertical = y % 2 == 0 && y + 1 < height - 1;
+                if ((horizontal || vertical) && random.nextDouble() < density) {
+                    grid[y * width + x] = FLOOR;
+                }
+            }
+        }
+    }
+
+    private void placeSpecials() {
+        for (int p = 1; p <= players; p++) {
+            specials.put(freeRoom(), "@" + p);
+            specials.put(freeRoom(), "!" + p);
+            for (int f = 0; f < formsPerPlayer; f++) {
+                specials.put(freeRoom(), FORM_LETTERS.charAt(f) + String.valueOf(p));
+            }
+        }
+        for (int s = 0; s < sheets; s++) {
+            specials.put(freeRoom(), "S ");
+        }
+    }
+
+    private int freeRoom() {
+        int roomsX = (width - 1) / 2;
+        int roomsY = (height - 1) / 2;
+        while (true) {
+            int index = (2 * random.nextInt(roomsY) + 1) * width + 2 * random.nextInt(roomsX) + 1;
+            if (!specials.containsKey(index)) {
+                return index;
+            }
+        }
+    }
+
+    private void open(int rx, int ry) {
+        grid[(2 * ry + 1) * width + 2 * rx + 1] = FLOOR;
+    }
+
+    private boolean isOpen(int rx, int ry) {
+        return grid[(2 * ry + 1) * width + 2 * rx + 1] == FLOOR;
+    }
+
+    private void shuffle(int[] values) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    /**
+     * Stream the maze as JSON, one row at a time, so huge mazes never exist as a single string
+     */
+    public void write(Writer writer, String name) throws IOException {
+        Gson gson = new Gson();
+        writer.write("{\n  \"name\": " + gson.toJson(name) + ",\n");
+        if (cellWidth != 2) {
+            writer.write("  \"cellWidth\": " + cellWidth + ",\n");
+        }
+        writer.write("  \"forms\": [");
+        for (int f = 0; f < formsPerPlayer; f++) {
+            char id = FORM_LETTERS.charAt(f);
+            writer.write((f > 0 ? "," : "") + "\n    {\"id\": \"" + id + "\", \"name\": \"Form " + id + "\"}");
+        }
+        writer.write("\n  ],\n  \"maze\": \"");
+
+        char[] row = new char[width * cellWidth];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+                int from = x * cellWidth;
+                String special = specials.get(index);
+                if (special != null) {
+                    for (int i = 0; i < cellWidth; i++) {
+                        row[from + i] = i < special.length() ? special.charAt(i) : ' ';
+                    }
+                } else {
+                    Arrays.fill(row, from, from + cellWidth, grid[index] == WALL ? '#' : ' ');
+                }
+            }
+            if (y > 0) {
+                writer.write('/');
+            }
+            writer.write(row);
+        }
+        writer.write("\"\n}\n");
+    }
+}